@@ -0,0 +1,25 @@
+package com.chessgame.benchmarks;
+
+import chessengine.game.Game;
+
+/**
+ * Fixed positions the benchmarks run on, one per game phase, so numbers stay
+ * comparable between runs.
+ */
+final class BenchmarkPositions {
+    static final String OPENING = "r1bqkbnr/pppp1ppp/2n5/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R w KQkq - 2 3";
+    static final String MIDDLEGAME = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    static final String ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+
+    private BenchmarkPositions() {
+    }
+
+    static Game load(String phase) {
+        return Game.fromFen(switch (phase) {
+            case "opening" -> OPENING;
+            case "middlegame" -> MIDDLEGAME;
+            case "endgame" -> ENDGAME;
+            default -> throw new IllegalArgumentException("Unknown position: " + phase);
+        });
+    }
+}
@@ -0,0 +1,82 @@
+package com.chessgame.benchmarks;
+
+import chessengine.board.Board;
+import chessengine.game.Game;
+import chessengine.move.Move;
+import chessengine.move.MoveGenerator;
+import chessengine.piece.PieceColor;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-call cost of the engine entry points the server uses on every move:
+ * generation, legality filtering, applying a move, copying the board and the
+ * game-over test.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmarks {
+
+    @Param({ "opening", "middlegame", "endgame" })
+    public String position;
+
+    private Game game;
+    private PieceColor toMove;
+    private MoveGenerator generator;
+    private Move firstMove;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = BenchmarkPositions.load(position);
+        toMove = game.getActiveColor();
+        generator = new MoveGenerator();
+        firstMove = game.legalMovesForColor(toMove).get(0);
+    }
+
+    @Benchmark
+    public List<Move> generateAllMoves() {
+        return generator.generateAllMoves(game.getBoard(), toMove == PieceColor.WHITE);
+    }
+
+    @Benchmark
+    public List<Move> legalMovesForColor() {
+        return game.legalMovesForColor(toMove);
+    }
+
+    /**
+     * applyMove includes its legality check; the move is taken back so every
+     * invocation starts from the same position.
+     */
+    @Benchmark
+    public Game applyMove() {
+        game.applyMove(firstMove);
+        game.unmakeMove();
+        return game;
+    }
+
+    @Benchmark
+    public Board boardCopy() {
+        return game.getBoard().copy();
+    }
+
+    @Benchmark
+    public boolean isCheckmate() {
+        return game.isCheckmate(toMove);
+    }
+}
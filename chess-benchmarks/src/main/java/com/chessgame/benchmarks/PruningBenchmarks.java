@@ -0,0 +1,81 @@
+package com.chessgame.benchmarks;
+
+import chessengine.ai.MinimaxBot;
+import chessengine.ai.TranspositionTable;
+import chessengine.game.Game;
+import chessengine.move.Move;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Searches at a fixed depth with one forward-pruning technique switched on at a
+ * time, all of them, or none. Nodes per second are reported next to searches per
+ * second; their ratio is the tree size, so the reduction of each technique can be
+ * compared.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PruningBenchmarks {
+
+    @Param({ "opening", "middlegame", "endgame" })
+    public String position;
+
+    @Param({ "5" })
+    public int depth;
+
+    @Param({ "none", "nullmove", "lmr", "futility", "reversefutility", "all" })
+    public String pruning;
+
+    private Game game;
+    private MinimaxBot bot;
+    private TranspositionTable table;
+
+    /**
+     * Nodes searched, reported by JMH as a secondary rate.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Nodes {
+        public long nodes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = BenchmarkPositions.load(position);
+        table = new TranspositionTable();
+        bot = new MinimaxBot(game.getActiveColor(), depth, table);
+        boolean all = pruning.equals("all");
+        bot.setNullMovePruning(all || pruning.equals("nullmove"));
+        bot.setLateMoveReductions(all || pruning.equals("lmr"));
+        bot.setFutilityPruning(all || pruning.equals("futility"));
+        bot.setReverseFutilityPruning(all || pruning.equals("reversefutility"));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public Move findBestMove(Nodes counter) {
+        Move move = bot.findBestMove(game);
+        counter.nodes += bot.getNodeCount();
+        return move;
+    }
+}
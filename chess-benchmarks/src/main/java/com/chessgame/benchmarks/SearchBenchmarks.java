@@ -0,0 +1,62 @@
+package com.chessgame.benchmarks;
+
+import chessengine.ai.MinimaxBot;
+import chessengine.ai.TranspositionTable;
+import chessengine.game.Game;
+import chessengine.move.Move;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Full bot searches at fixed depths, i.e. what a bot reply costs the server.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmarks {
+
+    @Param({ "opening", "middlegame", "endgame" })
+    public String position;
+
+    @Param({ "2", "3" })
+    public int depth;
+
+    private Game game;
+    private MinimaxBot bot;
+    private TranspositionTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = BenchmarkPositions.load(position);
+        table = new TranspositionTable();
+        bot = new MinimaxBot(game.getActiveColor(), depth, table);
+    }
+
+    /**
+     * Start every search cold; otherwise all but the first would be answered from
+     * the table.
+     */
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        table.clear();
+    }
+
+    @Benchmark
+    public Move findBestMove() {
+        return bot.findBestMove(game);
+    }
+}
@@ -0,0 +1,66 @@
+package com.chessgame.benchmarks;
+
+import chessengine.ai.MinimaxBot;
+import chessengine.ai.PieceSquareEvaluator;
+import chessengine.ai.TranspositionTable;
+import chessengine.game.Game;
+import chessengine.move.Move;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time to reach a fixed depth with the Lazy SMP search on 1, 2, 4 and 8 threads.
+ * The ratio to the single-threaded time is the speedup; it is only meaningful on
+ * a machine with at least as many idle cores as threads. Every invocation
+ * starts cold, with an empty table, a new bot and a new evaluator, so neither
+ * history, killers nor cached pawn scores carry over between searches.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SmpBenchmarks {
+
+    @Param({ "opening", "middlegame", "endgame" })
+    public String position;
+
+    @Param({ "8" })
+    public int depth;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private Game game;
+    private MinimaxBot bot;
+    private TranspositionTable table;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        game = BenchmarkPositions.load(position);
+        table = new TranspositionTable(16);
+    }
+
+    @Setup(Level.Invocation)
+    public void newSearch() {
+        table.clear();
+        bot = new MinimaxBot(game.getActiveColor(), depth, table, new PieceSquareEvaluator());
+    }
+
+    @Benchmark
+    public Move findBestMove() {
+        return bot.findBestMove(game, 0, 0, threads);
+    }
+}
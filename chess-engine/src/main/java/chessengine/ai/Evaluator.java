@@ -0,0 +1,14 @@
+package chessengine.ai;
+
+import chessengine.board.BitboardPosition;
+
+/**
+ * Static evaluation used by {@link MinimaxBot} at the leaves of its search.
+ * Implementations return centipawns from the side to move's point of view and
+ * must not change the position. One evaluator may be shared by several search
+ * threads, so implementations must be safe to call concurrently.
+ */
+public interface Evaluator {
+
+    int evaluate(BitboardPosition position);
+}
@@ -0,0 +1,31 @@
+package chessengine.ai;
+
+import chessengine.board.BitboardPosition;
+import chessengine.piece.PieceType;
+
+/**
+ * Plain material count in centipawns, counted per piece bitboard. Kept as a
+ * baseline to compare other evaluators against.
+ */
+public final class MaterialEvaluator implements Evaluator {
+
+    // indexed by PieceType ordinal: KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN
+    private static final int[] VALUES = { 0, 900, 500, 300, 300, 100 };
+
+    @Override
+    public int evaluate(BitboardPosition position) {
+        int score = 0;
+        for (int piece = 0; piece < 12; piece++) {
+            int val = VALUES[piece % 6] * Long.bitCount(position.pieces(piece));
+            score += BitboardPosition.colorOf(piece) == BitboardPosition.WHITE ? val : -val;
+        }
+        return position.isWhiteToMove() ? score : -score;
+    }
+
+    /**
+     * Value of one piece of the given type.
+     */
+    static int value(PieceType type) {
+        return VALUES[type.ordinal()];
+    }
+}
@@ -1,115 +1,664 @@
 package chessengine.ai;
 
-import chessengine.board.Board;
+import chessengine.board.BitboardPosition;
 import chessengine.game.Game;
 import chessengine.move.Move;
-import chessengine.piece.Piece;
+import chessengine.move.MovePicker;
+import chessengine.move.Moves;
 import chessengine.piece.PieceColor;
 import chessengine.piece.PieceType;
-import java.util.List;
 
+/**
+ * Computer player: a principal variation search (negamax alpha-beta where every
+ * move after the first is tried with a zero-width window and searched again only
+ * if it beats alpha) inside iterative deepening with aspiration windows.
+ * <p>
+ * Scores are int centipawns from the side to move's point of view. Giving mate at
+ * ply n scores {@code MATE - n}, so shorter mates score higher; any score at least
+ * {@link #MATE_BOUND} in absolute value is a mate, and {@link #mateDistance(int)}
+ * turns it into a move count.
+ */
 public class MinimaxBot {
 
+    /** Deepest nominal depth a bot will search to. */
+    public static final int MAX_DEPTH = 32;
+    /** Score of mate on the board at the root; mate at ply n scores {@code MATE - n}. */
+    public static final int MATE = 32000;
+    // deepest ply the main search plus quiescence may reach
+    private static final int MAX_PLY = 64;
+    /** Scores at least this large in absolute value are mates. */
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+
+    private static final int INFINITY = MATE + 1;
+    private static final PieceType[] TYPES = PieceType.values();
+    // a capture that cannot lift the score this close to alpha even after winning
+    // the victim is not searched in quiescence
+    private static final int DELTA_MARGIN = 200;
+    // history scores are halved once any of them passes this
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private static final int NULL_MOVE_MIN_DEPTH = 3;
+    private static final int NULL_MOVE_VERIFY_DEPTH = 8;
+    private static final int LMR_MIN_DEPTH = 3;
+    // moves searched at full depth before reductions start
+    private static final int LMR_FULL_DEPTH_MOVES = 3;
+    // indexed by remaining depth, in centipawns
+    private static final int[] FUTILITY_MARGIN = { 0, 200, 350 };
+    private static final int REVERSE_FUTILITY_DEPTH = 3;
+    private static final int REVERSE_FUTILITY_MARGIN = 120;
+    // first iteration searched with an aspiration window, and the window's
+    // initial half-width in centipawns
+    private static final int ASPIRATION_DEPTH = 4;
+    private static final int ASPIRATION_WINDOW = 25;
+
+    /** Most threads a single search will use. */
+    public static final int MAX_THREADS = 64;
+
     private final PieceColor color;
     private final int depth;
+    private final TranspositionTable table;
+    private final Evaluator evaluator;
+    // one staged move picker per ply
+    private final MovePicker[] pickers;
+    // two killer moves per ply: quiet moves that caused a cutoff at that ply
+    private final int[] killers = new int[MAX_PLY * 2];
+    // butterfly history, see MovePicker.historyIndex
+    private final int[] history = new int[2 * 64 * 64];
+    // triangular principal variation table: the line found at ply p is
+    // pv[p * MAX_PLY + p] up to pv[p * MAX_PLY + pvLength[p] - 1]
+    private final int[] pv = new int[MAX_PLY * MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY + 1];
+
+    // per-search time control, see findBestMove(Game, long, long)
+    private long softDeadline;
+    private long hardDeadline;
+    private boolean timeLimited;
+    private boolean stopped;
+    private long nodes;
+    // set by the main thread to stop a helper; see findBestMove(Game, long, long, int)
+    private volatile boolean aborted;
+    private MinimaxBot[] helpers;
+
+    // result of the last completed iteration
+    private int[] principalVariation = new int[0];
+    private int score;
+    private int completedDepth;
+
+    private boolean nullMovePruning = true;
+    private boolean lateMoveReductions = true;
+    private boolean futilityPruning = true;
+    private boolean reverseFutilityPruning = true;
 
     public MinimaxBot(PieceColor color, int depth) {
+        this(color, depth, new TranspositionTable());
+    }
+
+    /**
+     * A bot searching with a caller-owned transposition table, so results carry
+     * over between the successive moves of a game.
+     */
+    public MinimaxBot(PieceColor color, int depth, TranspositionTable table) {
+        this(color, depth, table, new PieceSquareEvaluator());
+    }
+
+    /**
+     * A bot with a caller-owned table and its own static evaluation.
+     */
+    public MinimaxBot(PieceColor color, int depth, TranspositionTable table, Evaluator evaluator) {
         this.color = color;
-        this.depth = depth;
+        this.depth = Math.max(1, Math.min(depth, MAX_DEPTH));
+        this.table = table;
+        this.evaluator = evaluator;
+        this.pickers = new MovePicker[MAX_PLY];
+        for (int i = 0; i < pickers.length; i++) {
+            pickers[i] = new MovePicker(history);
+        }
+    }
+
+    public PieceColor getColor() {
+        return color;
+    }
+
+    /**
+     * Nodes visited by the last search, main search and quiescence together.
+     */
+    public long getNodeCount() {
+        return nodes;
+    }
+
+    /**
+     * The line of play the last search expects, starting with the move it
+     * returned. Empty before the first search.
+     */
+    public java.util.List<Move> getPrincipalVariation() {
+        java.util.List<Move> line = new java.util.ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) {
+            line.add(Moves.toMove(move));
+        }
+        return line;
+    }
+
+    /**
+     * Score of the last search in centipawns from the bot's point of view; see
+     * {@link #mateDistance(int)} for mate scores.
+     */
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Depth of the last completed iteration of the last search.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    /**
+     * Moves until mate for a mate score: positive if the side the score belongs to
+     * mates, negative if it gets mated, 0 if the score is not a mate.
+     */
+    public static int mateDistance(int score) {
+        if (score >= MATE_BOUND)
+            return (MATE - score + 1) / 2;
+        if (score <= -MATE_BOUND)
+            return -(MATE + score) / 2;
+        return 0;
     }
 
+    /**
+     * Enable or disable null-move pruning; on by default.
+     */
+    public void setNullMovePruning(boolean enabled) {
+        this.nullMovePruning = enabled;
+    }
+
+    /**
+     * Enable or disable late-move reductions; on by default.
+     */
+    public void setLateMoveReductions(boolean enabled) {
+        this.lateMoveReductions = enabled;
+    }
+
+    /**
+     * Enable or disable futility pruning of quiet moves at depth 1 and 2; on by
+     * default.
+     */
+    public void setFutilityPruning(boolean enabled) {
+        this.futilityPruning = enabled;
+    }
+
+    /**
+     * Enable or disable reverse futility (static null move) pruning; on by default.
+     */
+    public void setReverseFutilityPruning(boolean enabled) {
+        this.reverseFutilityPruning = enabled;
+    }
+
+    /**
+     * Search depth 1, 2, ... up to this bot's depth and return the best move of the
+     * deepest iteration, or null if it is not the bot's turn or it has no legal move.
+     */
     public Move findBestMove(Game game) {
-        List<Move> legal = game.legalMovesForColor(color);
-        if (legal.isEmpty())
+        return findBestMove(game, 0, 0, 1);
+    }
+
+    /**
+     * Iterative deepening under a time budget, in milliseconds from now. No new
+     * iteration starts once {@code softMs} has passed; the running one is abandoned
+     * at {@code hardMs} and the best move of the last completed depth is returned.
+     * The first iteration always completes. A budget of 0 means no limit, in which
+     * case the search stops at this bot's depth.
+     */
+    public Move findBestMove(Game game, long softMs, long hardMs) {
+        return findBestMove(game, softMs, hardMs, 1);
+    }
+
+    /**
+     * Like {@link #findBestMove(Game, long, long)}, searching on {@code threads}
+     * threads (Lazy SMP). The calling thread runs the usual search while helper
+     * threads search the same root independently, half of them one ply ahead, and
+     * share their results only through the transposition table: entries one
+     * thread stores steer the move order and cutoffs of the others. When the main
+     * search ends the helpers are stopped, and the result of whichever thread
+     * completed the deepest iteration is kept.
+     */
+    public Move findBestMove(Game game, long softMs, long hardMs, int threads) {
+        clearResult();
+        if (game.getActiveColor() != color || !game.hasLegalMove(color))
             return null;
+        table.newSearch();
 
-        Move bestMove = null;
-        double bestValue = color == PieceColor.WHITE ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        int helperCount = Math.max(0, Math.min(threads, MAX_THREADS) - 1);
+        Thread[] workers = new Thread[helperCount];
+        for (int i = 0; i < helperCount; i++) {
+            MinimaxBot helper = helper(i);
+            int firstDepth = 1 + i % 2;
+            workers[i] = new Thread(() -> helper.iterate(game, softMs, hardMs, firstDepth),
+                    "search-helper-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
 
-        for (Move m : legal) {
-            Game sim = simulateMove(game, m);
-            double val = minimax(sim, depth - 1, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY,
-                    color != PieceColor.WHITE);
+        iterate(game, softMs, hardMs, 1);
 
-            if (color == PieceColor.WHITE) {
-                if (val > bestValue) {
-                    bestValue = val;
-                    bestMove = m;
-                }
+        for (int i = 0; i < helperCount; i++) {
+            helpers[i].aborted = true;
+        }
+        for (int i = 0; i < helperCount; i++) {
+            try {
+                workers[i].join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            MinimaxBot helper = helpers[i];
+            nodes += helper.nodes;
+            if (helper.completedDepth > completedDepth && helper.principalVariation.length > 0) {
+                completedDepth = helper.completedDepth;
+                score = helper.score;
+                principalVariation = helper.principalVariation;
+            }
+        }
+        return Moves.toMove(principalVariation[0]);
+    }
+
+    /**
+     * The i-th helper bot, created on first use and kept for later searches. It
+     * shares this bot's table and settings but has its own move ordering state.
+     */
+    private MinimaxBot helper(int i) {
+        if (helpers == null || helpers.length <= i)
+            helpers = java.util.Arrays.copyOf(helpers == null ? new MinimaxBot[0] : helpers, i + 1);
+        if (helpers[i] == null)
+            helpers[i] = new MinimaxBot(color, depth, table, evaluator);
+        MinimaxBot helper = helpers[i];
+        helper.nullMovePruning = nullMovePruning;
+        helper.lateMoveReductions = lateMoveReductions;
+        helper.futilityPruning = futilityPruning;
+        helper.reverseFutilityPruning = reverseFutilityPruning;
+        helper.aborted = false;
+        return helper;
+    }
+
+    private void clearResult() {
+        principalVariation = new int[0];
+        score = 0;
+        completedDepth = 0;
+        nodes = 0;
+    }
+
+    /**
+     * The iterative deepening loop of one thread, starting at {@code firstDepth}.
+     */
+    private void iterate(Game game, long softMs, long hardMs, int firstDepth) {
+        long start = System.nanoTime();
+        softDeadline = softMs > 0 ? start + softMs * 1_000_000 : Long.MAX_VALUE;
+        hardDeadline = hardMs > 0 ? start + hardMs * 1_000_000 : Long.MAX_VALUE;
+        timeLimited = false;
+        stopped = false;
+        clearResult();
+
+        // one private copy per search so other threads never see the in-place
+        // make/unmake; every node below reuses it
+        Game search = game.copy();
+        shiftKillers();
+        ageHistory();
+
+        for (int d = firstDepth; d <= depth; d++) {
+            int value = aspirationSearch(search, d, score);
+            if (stopped)
+                break;
+            score = value;
+            completedDepth = d;
+            if (pvLength[0] > 0)
+                principalVariation = java.util.Arrays.copyOf(pv, pvLength[0]);
+            timeLimited = hardDeadline != Long.MAX_VALUE;
+            if (System.nanoTime() >= softDeadline)
+                break;
+        }
+    }
+
+    /**
+     * Search the root with a narrow window around the previous iteration's score,
+     * widening it on the side that failed until the score falls inside. Shallow
+     * iterations, whose scores swing too much to guess, use the full window.
+     */
+    private int aspirationSearch(Game game, int depth, int previous) {
+        if (depth < ASPIRATION_DEPTH || Math.abs(previous) >= MATE_BOUND)
+            return negamax(game, 0, depth, -INFINITY, INFINITY, true);
+        int delta = ASPIRATION_WINDOW;
+        int alpha = previous - delta;
+        int beta = previous + delta;
+        while (true) {
+            int value = negamax(game, 0, depth, alpha, beta, true);
+            if (stopped)
+                return value;
+            if (value <= alpha) {
+                alpha = Math.max(alpha - delta, -INFINITY);
+            } else if (value >= beta) {
+                beta = Math.min(beta + delta, INFINITY);
             } else {
-                if (val < bestValue) {
-                    bestValue = val;
-                    bestMove = m;
-                }
+                return value;
             }
+            delta *= 2;
         }
-        return bestMove;
     }
 
-    private double minimax(Game game, int depth, double alpha, double beta, boolean isMaximizing) {
-        if (depth == 0)
-            return evaluate(game.getBoard());
+    /**
+     * Count a node and, every few thousand nodes, check whether the search was
+     * aborted or, once the first iteration is done, the hard deadline has passed.
+     */
+    private boolean outOfTime() {
+        if (stopped)
+            return true;
+        if ((++nodes & 2047) == 0
+                && (aborted || (timeLimited && System.nanoTime() >= hardDeadline)))
+            stopped = true;
+        return stopped;
+    }
+
+    private int negamax(Game game, int ply, int depth, int alpha, int beta, boolean allowNull) {
+        pvLength[ply] = ply;
+        if (outOfTime())
+            return 0;
+        if (depth <= 0)
+            return quiesce(game, ply, alpha, beta);
 
-        List<Move> moves = game.legalMovesForColor(isMaximizing ? PieceColor.WHITE : PieceColor.BLACK);
-        if (moves.isEmpty()) {
-            if (game.isKingInCheck(isMaximizing ? PieceColor.WHITE : PieceColor.BLACK)) {
-                return isMaximizing ? -10000 : 10000;
+        BitboardPosition position = game.getBoard().position();
+        int side = position.sideToMove();
+        boolean root = ply == 0;
+        boolean pvNode = beta - alpha > 1;
+        if (!root) {
+            // a repeated position is a draw for search purposes: whoever is better
+            // would have avoided it
+            if (game.isRepetition())
+                return 0;
+            if (game.isFiftyMoveRule() && game.hasLegalMove(game.getActiveColor()))
+                return 0;
+            // mate distance pruning: nothing from here beats a mate already found
+            // nearer the root
+            alpha = Math.max(alpha, -MATE + ply);
+            beta = Math.min(beta, MATE - ply - 1);
+            if (alpha >= beta)
+                return alpha;
+        }
+
+        long key = position.hash();
+        int hashMove = Moves.NONE;
+        long entry = table.probe(key);
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!pvNode && TranspositionTable.depth(entry) >= depth) {
+                int stored = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && stored >= beta)
+                        || (bound == TranspositionTable.UPPER && stored <= alpha))
+                    return stored;
             }
-            return 0; // Stalemate
         }
 
-        if (isMaximizing) {
-            double maxEval = Double.NEGATIVE_INFINITY;
-            for (Move m : moves) {
-                double eval = minimax(simulateMove(game, m), depth - 1, alpha, beta, false);
-                maxEval = Math.max(maxEval, eval);
-                alpha = Math.max(alpha, eval);
-                if (beta <= alpha)
-                    break;
+        boolean inCheck = position.isInCheck(side);
+        int staticEval = inCheck ? 0 : evaluator.evaluate(position);
+        // forward pruning works with margins around the bounds: only off the
+        // principal variation, and only while the bound is a material score
+        boolean canPrune = !pvNode && !inCheck;
+        boolean canCut = canPrune && Math.abs(beta) < MATE_BOUND;
+        boolean canFloor = canPrune && Math.abs(alpha) < MATE_BOUND;
+
+        // reverse futility: so far above beta near the leaves that no reply will
+        // bring the score back
+        if (reverseFutilityPruning && canCut && depth <= REVERSE_FUTILITY_DEPTH
+                && staticEval - REVERSE_FUTILITY_MARGIN * depth >= beta)
+            return staticEval;
+
+        // null move: if passing still fails high, a real move will too. Not with
+        // only king and pawns left, where zugzwang is common, nor twice in a row
+        if (nullMovePruning && canCut && allowNull && depth >= NULL_MOVE_MIN_DEPTH
+                && hasPieces(position, side) && staticEval >= beta) {
+            int reduced = depth - 1 - (depth >= 6 ? 3 : 2);
+            game.makeNullMove();
+            int value = -negamax(game, ply + 1, reduced, -beta, -beta + 1, false);
+            game.unmakeNullMove();
+            if (stopped)
+                return 0;
+            if (value >= beta && depth >= NULL_MOVE_VERIFY_DEPTH) {
+                // deep in the tree a wrong cutoff costs a lot: confirm it with a
+                // reduced real search that may not pass again
+                value = negamax(game, ply, reduced, beta - 1, beta, false);
+                if (stopped)
+                    return 0;
             }
-            return maxEval;
-        } else {
-            double minEval = Double.POSITIVE_INFINITY;
-            for (Move m : moves) {
-                double eval = minimax(simulateMove(game, m), depth - 1, alpha, beta, true);
-                minEval = Math.min(minEval, eval);
-                beta = Math.min(beta, eval);
-                if (beta <= alpha)
-                    break;
+            if (value >= beta)
+                return beta;
+        }
+
+        MovePicker picker = pickers[ply];
+        int killer1 = killers[ply * 2];
+        int killer2 = killers[ply * 2 + 1];
+        picker.init(position, hashMove, killer1, killer2);
+        int alphaOrig = alpha;
+        int searched = 0;
+        int bestMove = Moves.NONE;
+        int best = -INFINITY;
+        boolean futile = futilityPruning && canFloor && depth <= 2
+                && staticEval + FUTILITY_MARGIN[depth] <= alpha;
+        for (int move = picker.next(); move != Moves.NONE; move = picker.next()) {
+            searched++;
+            boolean quiet = isQuiet(move);
+            game.makeMove(move);
+            boolean givesCheck = position.isInCheck(side ^ 1);
+
+            // futility: a quiet move cannot lift a hopeless score to alpha this
+            // close to the leaves; count the margin as its score
+            if (futile && quiet && !givesCheck && searched > 1) {
+                game.unmakeMove();
+                best = Math.max(best, staticEval + FUTILITY_MARGIN[depth]);
+                continue;
+            }
+
+            int value;
+            if (searched == 1) {
+                value = -negamax(game, ply + 1, depth - 1, -beta, -alpha, true);
+            } else {
+                // later moves only need to be shown no better than alpha: a
+                // zero-width window does that cheaply, for late quiet moves even at
+                // reduced depth, and only a move that beats alpha is searched again
+                int reduction = 0;
+                if (lateMoveReductions && !inCheck && quiet && !givesCheck && depth >= LMR_MIN_DEPTH
+                        && searched > LMR_FULL_DEPTH_MOVES && move != killer1 && move != killer2)
+                    reduction = searched > 2 * LMR_FULL_DEPTH_MOVES && depth >= 6 ? 2 : 1;
+                value = -negamax(game, ply + 1, depth - 1 - reduction, -alpha - 1, -alpha, true);
+                if (!stopped && value > alpha && reduction > 0)
+                    value = -negamax(game, ply + 1, depth - 1, -alpha - 1, -alpha, true);
+                if (!stopped && value > alpha && value < beta)
+                    value = -negamax(game, ply + 1, depth - 1, -beta, -alpha, true);
+            }
+            game.unmakeMove();
+            if (stopped)
+                return 0;
+
+            if (value > best) {
+                best = value;
+                bestMove = move;
+                if (value > alpha) {
+                    alpha = value;
+                    updatePv(ply, move);
+                }
+            }
+            if (alpha >= beta) {
+                if (quiet)
+                    recordCutoff(ply, depth, side, move);
+                break;
             }
-            return minEval;
         }
+        if (searched == 0)
+            return inCheck ? -MATE + ply : 0;
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > alphaOrig ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        table.store(key, depth, bound, toTable(best, ply), bestMove);
+        return best;
     }
 
-    private Game simulateMove(Game original, Move m) {
-        Board copyBoard = original.getBoard().copy();
-        Game sim = new Game(copyBoard, original.getActiveColor() == PieceColor.WHITE);
-        sim.applyMove(m);
-        return sim;
+    /**
+     * Make {@code move} followed by the line found one ply deeper the principal
+     * variation at {@code ply}.
+     */
+    private void updatePv(int ply, int move) {
+        int row = ply * MAX_PLY;
+        int child = row + MAX_PLY;
+        pv[row + ply] = move;
+        int end = ply + 1 < MAX_PLY ? pvLength[ply + 1] : ply + 1;
+        for (int i = ply + 1; i < end; i++) {
+            pv[row + i] = pv[child + i];
+        }
+        pvLength[ply] = Math.max(end, ply + 1);
     }
 
-    private double evaluate(Board board) {
-        double score = 0;
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = board.getSquare(r, c).getPiece();
-                if (p != null) {
-                    double val = getPieceValue(p.getType());
-                    score += (p.getColor() == PieceColor.WHITE ? val : -val);
+    /**
+     * Mate scores are stored relative to the node rather than the root, so an entry
+     * stays right when the position comes up again at another ply.
+     */
+    static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND)
+            return score + ply;
+        if (score <= -MATE_BOUND)
+            return score - ply;
+        return score;
+    }
+
+    static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND)
+            return score - ply;
+        if (score <= -MATE_BOUND)
+            return score + ply;
+        return score;
+    }
+
+    /**
+     * Whether {@code side} has anything besides king and pawns.
+     */
+    private static boolean hasPieces(BitboardPosition position, int side) {
+        long kingAndPawns = position.pieces(BitboardPosition.pieceIndex(side, PieceType.KING))
+                | position.pieces(BitboardPosition.pieceIndex(side, PieceType.PAWN));
+        return (position.occupancy(side) & ~kingAndPawns) != 0;
+    }
+
+    private static boolean isQuiet(int move) {
+        int type = Moves.type(move);
+        return type == Moves.NORMAL || type == Moves.CASTLING;
+    }
+
+    /**
+     * A quiet move refuted the opponent's last move: make it the first killer of
+     * this ply and raise its history score, more so the deeper the cutoff.
+     */
+    private void recordCutoff(int ply, int depth, int side, int move) {
+        int slot = ply * 2;
+        if (killers[slot] != move) {
+            killers[slot + 1] = killers[slot];
+            killers[slot] = move;
+        }
+        int index = MovePicker.historyIndex(side, move);
+        history[index] += depth * depth;
+        if (history[index] > HISTORY_LIMIT)
+            ageHistory();
+    }
+
+    /**
+     * Halve every history score so older cutoffs weigh less than recent ones.
+     */
+    private void ageHistory() {
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    /**
+     * Move the killers two plies towards the root. A bot kept for a whole game
+     * searches again after its own move and the reply, so what was ply p + 2 is
+     * ply p now; killers are checked for legality before use, so a stale one only
+     * costs a lookup.
+     */
+    private void shiftKillers() {
+        System.arraycopy(killers, 4, killers, 0, killers.length - 4);
+        java.util.Arrays.fill(killers, killers.length - 4, killers.length, Moves.NONE);
+    }
+
+    /**
+     * Search captures and promotions only until the position is quiet, so the
+     * static evaluation is never taken in the middle of an exchange. The side to
+     * move may stand pat on the static score; a capture that cannot bring the
+     * score back to alpha even with a margin is skipped (delta pruning). When in
+     * check every evasion is searched instead, since standing pat is not an option.
+     */
+    private int quiesce(Game game, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (outOfTime())
+            return 0;
+        BitboardPosition position = game.getBoard().position();
+        boolean inCheck = position.isInCheck(position.sideToMove());
+        int standPat = evaluator.evaluate(position);
+        if (ply >= MAX_PLY - 1)
+            return standPat;
+
+        int best;
+        if (inCheck) {
+            best = -INFINITY;
+        } else {
+            if (standPat >= beta)
+                return standPat;
+            best = standPat;
+            alpha = Math.max(alpha, standPat);
+        }
+
+        MovePicker picker = pickers[ply];
+        if (inCheck) {
+            picker.init(position, Moves.NONE, Moves.NONE, Moves.NONE);
+        } else {
+            picker.initNoisy(position);
+        }
+        int searched = 0;
+        for (int move = picker.next(); move != Moves.NONE; move = picker.next()) {
+            searched++;
+            if (!inCheck && standPat + captureGain(position, move) + DELTA_MARGIN <= alpha)
+                continue;
+            game.makeMove(move);
+            int value = -quiesce(game, ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (stopped)
+                return 0;
+            if (value > best) {
+                best = value;
+                if (value > alpha) {
+                    alpha = value;
+                    updatePv(ply, move);
                 }
             }
+            if (alpha >= beta)
+                break;
         }
-        return score;
+        if (inCheck && searched == 0)
+            return -MATE + ply;
+        return best;
     }
 
-    private double getPieceValue(PieceType type) {
-        return switch (type) {
-            case PAWN -> 10;
-            case KNIGHT -> 30;
-            case BISHOP -> 30;
-            case ROOK -> 50;
-            case QUEEN -> 90;
-            case KING -> 900;
-        };
+    /**
+     * Most material a capture or promotion can win: the victim plus, for a
+     * promotion, the promoted piece in place of the pawn.
+     */
+    private int captureGain(BitboardPosition position, int move) {
+        int gain = 0;
+        int type = Moves.type(move);
+        if (type == Moves.EN_PASSANT) {
+            gain = MaterialEvaluator.value(PieceType.PAWN);
+        } else {
+            int victim = position.pieceAt(Moves.to(move));
+            if (victim != BitboardPosition.NO_PIECE)
+                gain = MaterialEvaluator.value(TYPES[victim % 6]);
+        }
+        if (type == Moves.PROMOTION)
+            gain += MaterialEvaluator.value(Moves.promotionType(move)) - MaterialEvaluator.value(PieceType.PAWN);
+        return gain;
     }
 }
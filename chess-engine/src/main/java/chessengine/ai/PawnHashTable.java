@@ -0,0 +1,95 @@
+package chessengine.ai;
+
+/**
+ * Fixed-size cache of pawn-structure scores keyed by the position's pawn key
+ * ({@link chessengine.board.BitboardPosition#pawnHash()}). Pawn moves and pawn
+ * captures are rare compared to the nodes a search visits, so most lookups hit
+ * and the structure is only worked out again after the pawns change.
+ * <p>
+ * Like {@link TranspositionTable}, entries live in two parallel {@code long[]}
+ * arrays: {@code data} packs the middlegame score in its high and the endgame
+ * score in its low 32 bits, and {@code keys} holds the pawn key XOR the data word,
+ * so threads can share a table without locking and a torn entry reads as a miss.
+ * Each slot is always overwritten. The probe and hit counters are not
+ * synchronized and may undercount when several threads share the table, which is
+ * good enough for tuning its size.
+ */
+public final class PawnHashTable {
+    public static final int DEFAULT_ENTRIES = 1 << 14;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+    private long probes;
+    private long hits;
+
+    public PawnHashTable() {
+        this(DEFAULT_ENTRIES);
+    }
+
+    /**
+     * A table of {@code entries} slots, rounded down to a power of two.
+     */
+    public PawnHashTable(int entries) {
+        if (entries < 1)
+            throw new IllegalArgumentException("Table must have at least one entry: " + entries);
+        int size = Integer.highestOneBit(entries);
+        keys = new long[size];
+        data = new long[size];
+        mask = size - 1;
+    }
+
+    /**
+     * The packed score cached for {@code key}, or {@link PawnStructure#MISS}. An
+     * empty slot matches key 0 with score 0, which is right for a position
+     * without pawns.
+     */
+    long probe(long key) {
+        probes++;
+        int slot = slot(key);
+        long entry = data[slot];
+        if ((keys[slot] ^ entry) == key) {
+            hits++;
+            return entry;
+        }
+        return PawnStructure.MISS;
+    }
+
+    void store(long key, long entry) {
+        int slot = slot(key);
+        data[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+        probes = 0;
+        hits = 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    public long getProbeCount() {
+        return probes;
+    }
+
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Fraction of probes answered from the table since it was created or last
+     * cleared, 0 if there were none.
+     */
+    public double getHitRate() {
+        long p = probes;
+        return p == 0 ? 0 : (double) hits / p;
+    }
+
+    private int slot(long key) {
+        return (int) (key ^ key >>> 32) & mask;
+    }
+}
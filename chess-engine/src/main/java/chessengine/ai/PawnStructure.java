@@ -0,0 +1,153 @@
+package chessengine.ai;
+
+import chessengine.board.BitboardPosition;
+import chessengine.board.Bitboards;
+import chessengine.piece.PieceType;
+
+/**
+ * Pawn-structure terms: passed, isolated, doubled and backward pawns, and the
+ * pawn shield in front of each king. The structure terms depend only on where the
+ * pawns stand, so {@link PieceSquareEvaluator} caches them by pawn key in a
+ * {@link PawnHashTable}; the shield also depends on the king square and is
+ * computed on every call, which costs two mask lookups and two popcounts per side.
+ * Scores are middlegame/endgame pairs in centipawns from White's point of view.
+ */
+final class PawnStructure {
+    /** Never a packed score: the middlegame half would be far out of range. */
+    static final long MISS = Long.MIN_VALUE;
+
+    // indexed by the pawn's rank counted from its own side, 0-7
+    private static final int[] PASSED_MIDDLEGAME = { 0, 5, 10, 15, 25, 40, 60, 0 };
+    private static final int[] PASSED_ENDGAME = { 0, 10, 15, 25, 45, 70, 110, 0 };
+    private static final int ISOLATED_MIDDLEGAME = -10;
+    private static final int ISOLATED_ENDGAME = -15;
+    private static final int DOUBLED_MIDDLEGAME = -10;
+    private static final int DOUBLED_ENDGAME = -20;
+    private static final int BACKWARD_MIDDLEGAME = -8;
+    private static final int BACKWARD_ENDGAME = -10;
+    // per pawn on the rank just in front of the king, and the one after it
+    private static final int SHIELD_NEAR = 12;
+    private static final int SHIELD_FAR = 6;
+
+    private static final int WHITE = BitboardPosition.WHITE;
+    private static final int BLACK = BitboardPosition.BLACK;
+
+    private static final long[] FILES = new long[8];
+    private static final long[] ADJACENT_FILES = new long[8];
+    // [color][square]: squares in front of a pawn on its file and the adjacent ones
+    private static final long[][] PASSED = new long[2][64];
+    // [color][square]: squares on adjacent files level with or behind a pawn
+    private static final long[][] SUPPORT = new long[2][64];
+    // [color][king square]: the king's and adjacent files, one and two ranks ahead
+    private static final long[][] SHIELD_NEAR_MASK = new long[2][64];
+    private static final long[][] SHIELD_FAR_MASK = new long[2][64];
+
+    static {
+        for (int file = 0; file < 8; file++)
+            FILES[file] = Bitboards.FILE_A << file;
+        for (int file = 0; file < 8; file++)
+            ADJACENT_FILES[file] = (file > 0 ? FILES[file - 1] : 0L) | (file < 7 ? FILES[file + 1] : 0L);
+        for (int sq = 0; sq < 64; sq++) {
+            int file = sq & 7;
+            int rank = sq >>> 3;
+            long span = FILES[file] | ADJACENT_FILES[file];
+            for (int r = 0; r < 8; r++) {
+                long rankMask = Bitboards.RANK_1 << (r << 3);
+                if (r > rank)
+                    PASSED[WHITE][sq] |= span & rankMask;
+                if (r < rank)
+                    PASSED[BLACK][sq] |= span & rankMask;
+                if (r <= rank)
+                    SUPPORT[WHITE][sq] |= ADJACENT_FILES[file] & rankMask;
+                if (r >= rank)
+                    SUPPORT[BLACK][sq] |= ADJACENT_FILES[file] & rankMask;
+            }
+            if (rank < 7)
+                SHIELD_NEAR_MASK[WHITE][sq] = span & Bitboards.RANK_1 << ((rank + 1) << 3);
+            if (rank < 6)
+                SHIELD_FAR_MASK[WHITE][sq] = span & Bitboards.RANK_1 << ((rank + 2) << 3);
+            if (rank > 0)
+                SHIELD_NEAR_MASK[BLACK][sq] = span & Bitboards.RANK_1 << ((rank - 1) << 3);
+            if (rank > 1)
+                SHIELD_FAR_MASK[BLACK][sq] = span & Bitboards.RANK_1 << ((rank - 2) << 3);
+        }
+    }
+
+    private PawnStructure() {
+    }
+
+    /**
+     * Structure score of the position's pawns, packed as by {@link #pack}.
+     */
+    static long evaluate(BitboardPosition position) {
+        long white = position.pieces(BitboardPosition.pieceIndex(WHITE, PieceType.PAWN));
+        long black = position.pieces(BitboardPosition.pieceIndex(BLACK, PieceType.PAWN));
+        long whiteAttacks = (white << 7 & ~Bitboards.FILE_H) | (white << 9 & ~Bitboards.FILE_A);
+        long blackAttacks = (black >>> 7 & ~Bitboards.FILE_A) | (black >>> 9 & ~Bitboards.FILE_H);
+        long w = evaluateSide(WHITE, white, black, blackAttacks);
+        long b = evaluateSide(BLACK, black, white, whiteAttacks);
+        return pack(middlegame(w) - middlegame(b), endgame(w) - endgame(b));
+    }
+
+    private static long evaluateSide(int color, long own, long enemy, long enemyAttacks) {
+        int mg = 0;
+        int eg = 0;
+        for (int file = 0; file < 8; file++) {
+            int count = Long.bitCount(own & FILES[file]);
+            if (count > 1) {
+                mg += (count - 1) * DOUBLED_MIDDLEGAME;
+                eg += (count - 1) * DOUBLED_ENDGAME;
+            }
+        }
+        for (long pawns = own; pawns != 0; pawns &= pawns - 1) {
+            int sq = Bitboards.lsb(pawns);
+            int file = sq & 7;
+            int rank = color == WHITE ? sq >>> 3 : 7 - (sq >>> 3);
+            if ((enemy & PASSED[color][sq]) == 0 && (own & FILES[file] & PASSED[color][sq]) == 0) {
+                // only the front pawn of a doubled pair counts as passed
+                mg += PASSED_MIDDLEGAME[rank];
+                eg += PASSED_ENDGAME[rank];
+            }
+            if ((own & ADJACENT_FILES[file]) == 0) {
+                mg += ISOLATED_MIDDLEGAME;
+                eg += ISOLATED_ENDGAME;
+            } else if ((own & SUPPORT[color][sq]) == 0) {
+                // no neighbour can come up to defend it, and advancing loses it
+                int stop = color == WHITE ? sq + 8 : sq - 8;
+                if ((enemyAttacks & Bitboards.bit(stop)) != 0) {
+                    mg += BACKWARD_MIDDLEGAME;
+                    eg += BACKWARD_ENDGAME;
+                }
+            }
+        }
+        return pack(mg, eg);
+    }
+
+    /**
+     * Middlegame bonus for the pawns sheltering each king, White minus Black.
+     */
+    static int kingShield(BitboardPosition position) {
+        return shield(position, WHITE) - shield(position, BLACK);
+    }
+
+    private static int shield(BitboardPosition position, int color) {
+        long pawns = position.pieces(BitboardPosition.pieceIndex(color, PieceType.PAWN));
+        int king = position.kingSquare(color);
+        if (king < 0)
+            return 0;
+        return SHIELD_NEAR * Long.bitCount(pawns & SHIELD_NEAR_MASK[color][king])
+                + SHIELD_FAR * Long.bitCount(pawns & SHIELD_FAR_MASK[color][king]);
+    }
+
+    static long pack(int middlegame, int endgame) {
+        return (long) middlegame << 32 | (endgame & 0xFFFFFFFFL);
+    }
+
+    static int middlegame(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    static int endgame(long packed) {
+        return (int) packed;
+    }
+}
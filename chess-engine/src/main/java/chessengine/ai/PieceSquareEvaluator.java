@@ -0,0 +1,44 @@
+package chessengine.ai;
+
+import chessengine.board.BitboardPosition;
+import chessengine.board.PieceSquareTables;
+
+/**
+ * Material, piece-square and pawn-structure evaluation tapered between
+ * middlegame and endgame by the material left on the board. The position keeps
+ * the piece-square sums and the phase up to date in make/unmake; the pawn
+ * structure is looked up by pawn key in a {@link PawnHashTable} and only worked
+ * out on a miss, so most evaluations stay a handful of int operations.
+ */
+public final class PieceSquareEvaluator implements Evaluator {
+    private final PawnHashTable pawnTable;
+
+    public PieceSquareEvaluator() {
+        this(new PawnHashTable());
+    }
+
+    public PieceSquareEvaluator(PawnHashTable pawnTable) {
+        this.pawnTable = pawnTable;
+    }
+
+    public PawnHashTable getPawnTable() {
+        return pawnTable;
+    }
+
+    @Override
+    public int evaluate(BitboardPosition position) {
+        long key = position.pawnHash();
+        long pawns = pawnTable.probe(key);
+        if (pawns == PawnStructure.MISS) {
+            pawns = PawnStructure.evaluate(position);
+            pawnTable.store(key, pawns);
+        }
+        int middlegame = position.middlegameScore() + PawnStructure.middlegame(pawns)
+                + PawnStructure.kingShield(position);
+        int endgame = position.endgameScore() + PawnStructure.endgame(pawns);
+        int phase = Math.min(position.gamePhase(), PieceSquareTables.MAX_PHASE);
+        int score = (middlegame * phase + endgame * (PieceSquareTables.MAX_PHASE - phase))
+                / PieceSquareTables.MAX_PHASE;
+        return position.isWhiteToMove() ? score : -score;
+    }
+}
@@ -0,0 +1,144 @@
+package chessengine.ai;
+
+import chessengine.move.Moves;
+
+/**
+ * Fixed-size hash table of search results keyed by the position's Zobrist hash.
+ * Entries live in two parallel {@code long[]} arrays, with no object per entry:
+ * {@code keys} holds the full hash XOR the data word for verification and
+ * {@code data} packs
+ * <ul>
+ * <li>bits 0-17: best move ({@link Moves} encoding, {@link Moves#NONE} if none)</li>
+ * <li>bits 18-19: bound type ({@link #EXACT}, {@link #LOWER}, {@link #UPPER})</li>
+ * <li>bits 20-26: remaining depth</li>
+ * <li>bits 27-31: search generation</li>
+ * <li>bits 32-63: score</li>
+ * </ul>
+ * Entries are grouped in buckets of two: the first slot keeps the deepest result
+ * (replaced only by a result at least as deep, or one left over from an earlier
+ * search), the second is always overwritten. A table is meant to live as long as
+ * a game and be handed to each search with {@link #newSearch()}.
+ * <p>
+ * Several search threads may share one table without locking. An entry is two
+ * separate writes, so a reader can see the key of one store with the data of
+ * another; because the key word is stored XOR the data word, such a torn entry
+ * fails the key check and reads as a miss instead of returning wrong data.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 1;
+    /** The score is a lower bound: the search failed high. */
+    public static final int LOWER = 2;
+    /** The score is an upper bound: no move reached alpha. */
+    public static final int UPPER = 3;
+
+    public static final int DEFAULT_MEGABYTES = 4;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int MAX_DEPTH = 127;
+    private static final int GENERATIONS = 32;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int generation;
+
+    public TranspositionTable() {
+        this(DEFAULT_MEGABYTES);
+    }
+
+    /**
+     * A table using at most {@code megabytes} of memory, rounded down to a power
+     * of two number of entries.
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1)
+            throw new IllegalArgumentException("Table size must be at least 1 MB: " + megabytes);
+        long entries = Long.highestOneBit((long) megabytes * 1024 * 1024 / ENTRY_BYTES);
+        entries = Math.min(entries, 1L << 30);
+        keys = new long[(int) entries];
+        data = new long[(int) entries];
+        bucketMask = (int) (entries / 2) - 1;
+    }
+
+    /**
+     * Mark the start of a new search so entries from earlier ones become
+     * replaceable regardless of their depth.
+     */
+    public void newSearch() {
+        generation = (generation + 1) % GENERATIONS;
+    }
+
+    public void clear() {
+        java.util.Arrays.fill(keys, 0L);
+        java.util.Arrays.fill(data, 0L);
+        generation = 0;
+    }
+
+    public int capacity() {
+        return keys.length;
+    }
+
+    /**
+     * The packed data word stored for {@code key}, or 0 if there is none. Its
+     * fields are read with {@link #score}, {@link #depth}, {@link #bound} and
+     * {@link #move}; taking one snapshot keeps them consistent while other threads
+     * write to the table.
+     */
+    public long probe(long key) {
+        int slot = bucket(key);
+        for (int i = slot; i < slot + 2; i++) {
+            long entry = data[i];
+            if (entry != 0 && (keys[i] ^ entry) == key)
+                return entry;
+        }
+        return 0;
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 32);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 20) & MAX_DEPTH;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 18) & 3;
+    }
+
+    public static int move(long entry) {
+        return (int) entry & 0x3FFFF;
+    }
+
+    /**
+     * Record a search result. A result without a best move keeps the move
+     * already stored for the same position.
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int slot = bucket(key);
+        long deep = data[slot];
+        long other = data[slot + 1];
+        boolean deepMatches = (keys[slot] ^ deep) == key;
+        if (!deepMatches && (keys[slot + 1] ^ other) == key) {
+            slot++;
+        } else if (!deepMatches && deep != 0 && generation(deep) == generation && depth < depth(deep)) {
+            // the deep slot holds a deeper result from this search; use the other one
+            slot++;
+        }
+        long old = data[slot];
+        if (move == Moves.NONE && (keys[slot] ^ old) == key)
+            move = move(old);
+        long entry = (long) score << 32 | (long) generation << 27
+                | (long) Math.min(Math.max(depth, 0), MAX_DEPTH) << 20 | (long) bound << 18 | move;
+        data[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    private int bucket(long key) {
+        return ((int) (key ^ key >>> 32) & bucketMask) << 1;
+    }
+
+    private static int generation(long entry) {
+        return (int) (entry >>> 27) & (GENERATIONS - 1);
+    }
+}
@@ -0,0 +1,229 @@
+package chessengine.board;
+
+/**
+ * Precomputed attack tables. Knight, king and pawn attacks are plain per-square
+ * lookups; rook and bishop attacks use fancy magic bitboards, so every attack
+ * query is a mask, a multiply, a shift and one array read.
+ * The tables are built once when the class is loaded and are never written
+ * afterwards, so they are safe to share between search threads and game rooms.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64];
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final long[] ROOK_MAGIC = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] ROOK_OFFSET = new int[64];
+    private static final long[] ROOK_TABLE;
+
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final long[] BISHOP_MAGIC = new long[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final int[] BISHOP_OFFSET = new int[64];
+    private static final long[] BISHOP_TABLE;
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static final int[][] ROOK_DIRECTIONS = { { 1, 0 }, { -1, 0 }, { 0, 1 }, { 0, -1 } };
+    private static final int[][] BISHOP_DIRECTIONS = { { 1, 1 }, { 1, -1 }, { -1, 1 }, { -1, -1 } };
+
+    static {
+        int[][] knightDeltas = { { 2, 1 }, { 2, -1 }, { -2, 1 }, { -2, -1 }, { 1, 2 }, { 1, -2 }, { -1, 2 }, { -1, -2 } };
+        int[][] kingDeltas = { { 1, 1 }, { 1, 0 }, { 1, -1 }, { 0, 1 }, { 0, -1 }, { -1, 1 }, { -1, 0 }, { -1, -1 } };
+        for (int sq = 0; sq < 64; sq++) {
+            KNIGHT[sq] = stepAttacks(sq, knightDeltas);
+            KING[sq] = stepAttacks(sq, kingDeltas);
+            // ranks grow towards Black, so White pawns attack rank + 1
+            PAWN[BitboardPosition.WHITE][sq] = stepAttacks(sq, new int[][] { { 1, 1 }, { 1, -1 } });
+            PAWN[BitboardPosition.BLACK][sq] = stepAttacks(sq, new int[][] { { -1, 1 }, { -1, -1 } });
+        }
+
+        int rookSize = 0;
+        int bishopSize = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            ROOK_MASK[sq] = relevantMask(sq, ROOK_DIRECTIONS);
+            BISHOP_MASK[sq] = relevantMask(sq, BISHOP_DIRECTIONS);
+            ROOK_SHIFT[sq] = 64 - Long.bitCount(ROOK_MASK[sq]);
+            BISHOP_SHIFT[sq] = 64 - Long.bitCount(BISHOP_MASK[sq]);
+            ROOK_OFFSET[sq] = rookSize;
+            BISHOP_OFFSET[sq] = bishopSize;
+            rookSize += 1 << Long.bitCount(ROOK_MASK[sq]);
+            bishopSize += 1 << Long.bitCount(BISHOP_MASK[sq]);
+        }
+        ROOK_TABLE = new long[rookSize];
+        BISHOP_TABLE = new long[bishopSize];
+
+        // fixed per-rank seeds that are known to find magics quickly; the magics (and so
+        // the table layout) are identical on every run
+        int[] rankSeeds = { 728, 10316, 55013, 32803, 12281, 15100, 16645, 255 };
+        long[] seed = new long[1];
+        for (int sq = 0; sq < 64; sq++) {
+            seed[0] = rankSeeds[sq >>> 3];
+            ROOK_MAGIC[sq] = findMagic(sq, ROOK_MASK[sq], ROOK_SHIFT[sq], ROOK_DIRECTIONS,
+                    ROOK_TABLE, ROOK_OFFSET[sq], seed);
+            BISHOP_MAGIC[sq] = findMagic(sq, BISHOP_MASK[sq], BISHOP_SHIFT[sq], BISHOP_DIRECTIONS,
+                    BISHOP_TABLE, BISHOP_OFFSET[sq], seed);
+        }
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b)
+                    continue;
+                long ab = (1L << a) | (1L << b);
+                if ((rook(a, 0) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = rook(a, 1L << b) & rook(b, 1L << a);
+                    LINE[a][b] = (rook(a, 0) & rook(b, 0)) | ab;
+                } else if ((bishop(a, 0) & (1L << b)) != 0) {
+                    BETWEEN[a][b] = bishop(a, 1L << b) & bishop(b, 1L << a);
+                    LINE[a][b] = (bishop(a, 0) & bishop(b, 0)) | ab;
+                }
+            }
+        }
+    }
+
+    private Attacks() {
+    }
+
+    public static long knight(int square) {
+        return KNIGHT[square];
+    }
+
+    public static long king(int square) {
+        return KING[square];
+    }
+
+    /**
+     * Squares attacked by a pawn of the given colour ({@link BitboardPosition#WHITE}
+     * or {@link BitboardPosition#BLACK}) standing on {@code square}.
+     */
+    public static long pawn(int color, int square) {
+        return PAWN[color][square];
+    }
+
+    public static long rook(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASK[square]) * ROOK_MAGIC[square]) >>> ROOK_SHIFT[square]);
+        return ROOK_TABLE[ROOK_OFFSET[square] + index];
+    }
+
+    public static long bishop(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASK[square]) * BISHOP_MAGIC[square]) >>> BISHOP_SHIFT[square]);
+        return BISHOP_TABLE[BISHOP_OFFSET[square] + index];
+    }
+
+    public static long queen(int square, long occupied) {
+        return rook(square, occupied) | bishop(square, occupied);
+    }
+
+    /**
+     * Squares strictly between two squares on a shared rank, file or diagonal; empty
+     * if they are not aligned.
+     */
+    public static long between(int a, int b) {
+        return BETWEEN[a][b];
+    }
+
+    /**
+     * The whole rank, file or diagonal through two aligned squares; empty if they are
+     * not aligned.
+     */
+    public static long line(int a, int b) {
+        return LINE[a][b];
+    }
+
+    private static long stepAttacks(int sq, int[][] deltas) {
+        long result = 0;
+        int rank = sq >>> 3;
+        int file = sq & 7;
+        for (int[] d : deltas) {
+            int r = rank + d[0];
+            int f = file + d[1];
+            if (r >= 0 && r < 8 && f >= 0 && f < 8)
+                result |= 1L << (r * 8 + f);
+        }
+        return result;
+    }
+
+    /**
+     * Ray attacks from {@code sq}, stopping at (and including) the first occupied square.
+     */
+    private static long slidingAttacks(int sq, long occupied, int[][] directions) {
+        long result = 0;
+        for (int[] d : directions) {
+            int r = (sq >>> 3) + d[0];
+            int f = (sq & 7) + d[1];
+            while (r >= 0 && r < 8 && f >= 0 && f < 8) {
+                long b = 1L << (r * 8 + f);
+                result |= b;
+                if ((occupied & b) != 0)
+                    break;
+                r += d[0];
+                f += d[1];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Occupancy bits that can change the attack set: the rays without their edge squares.
+     */
+    private static long relevantMask(int sq, int[][] directions) {
+        long result = 0;
+        for (int[] d : directions) {
+            int r = (sq >>> 3) + d[0];
+            int f = (sq & 7) + d[1];
+            while (r + d[0] >= 0 && r + d[0] < 8 && f + d[1] >= 0 && f + d[1] < 8) {
+                result |= 1L << (r * 8 + f);
+                r += d[0];
+                f += d[1];
+            }
+        }
+        return result;
+    }
+
+    private static long findMagic(int sq, long mask, int shift, int[][] directions,
+            long[] table, int offset, long[] seed) {
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+        // enumerate every subset of the mask (Carry-Rippler)
+        long subset = 0;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slidingAttacks(sq, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        int[] epoch = new int[size];
+        for (int attempt = 1;; attempt++) {
+            long magic = nextRandom(seed) & nextRandom(seed) & nextRandom(seed);
+            if (Long.bitCount((mask * magic) >>> 56) < 6)
+                continue;
+            boolean ok = true;
+            for (int i = 0; i < size && ok; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> shift);
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[offset + index] = attacks[i];
+                } else if (table[offset + index] != attacks[i]) {
+                    ok = false;
+                }
+            }
+            if (ok)
+                return magic;
+        }
+    }
+
+    private static long nextRandom(long[] seed) {
+        // xorshift64*
+        long x = seed[0];
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        seed[0] = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+}
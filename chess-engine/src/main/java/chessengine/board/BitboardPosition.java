@@ -0,0 +1,455 @@
+package chessengine.board;
+
+import chessengine.piece.Piece;
+import chessengine.piece.PieceColor;
+import chessengine.piece.PieceType;
+import java.util.Arrays;
+
+/**
+ * Bitboard representation of a position: one {@code long} per colour/piece type,
+ * plus a square-indexed mailbox for O(1) piece lookup, the en-passant target,
+ * castling rights, side to move, the halfmove clock and fullmove number, and the
+ * Zobrist key.
+ * Piece indices are {@code color.ordinal() * 6 + type.ordinal()}; squares follow
+ * {@link Bitboards}.
+ */
+public final class BitboardPosition {
+    public static final int NO_SQUARE = -1;
+    public static final int NO_PIECE = -1;
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+    // masks over the 4-bit fields of the material signature
+    private static final long UNITS = 0x111111111111L;
+    private static final long HEAVY_AND_PAWNS = materialFields(PieceType.QUEEN, PieceType.ROOK, PieceType.PAWN);
+    private static final long MINORS = materialFields(PieceType.BISHOP, PieceType.KNIGHT);
+    private static final long KNIGHTS = materialFields(PieceType.KNIGHT);
+
+    // rights that survive a move touching the square (king and rook home squares clear theirs)
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[4] = ~(WHITE_KINGSIDE | WHITE_QUEENSIDE) & 15;
+        CASTLING_MASK[7] = ~WHITE_KINGSIDE & 15;
+        CASTLING_MASK[0] = ~WHITE_QUEENSIDE & 15;
+        CASTLING_MASK[60] = ~(BLACK_KINGSIDE | BLACK_QUEENSIDE) & 15;
+        CASTLING_MASK[63] = ~BLACK_KINGSIDE & 15;
+        CASTLING_MASK[56] = ~BLACK_QUEENSIDE & 15;
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private final int[] mailbox = new int[64];
+    // tracked king squares per colour, NO_SQUARE while a king is off the board
+    private final int[] kingSquares = { NO_SQUARE, NO_SQUARE };
+    private int enPassantSquare = NO_SQUARE;
+    private int castlingRights;
+    private boolean whiteToMove = true;
+    // plies since the last capture or pawn move, and the FEN move number; not hashed
+    private int halfmoveClock;
+    private int fullmoveNumber = 1;
+    // Zobrist key, updated incrementally by every mutator
+    private long hash;
+    // Zobrist key of the pawns alone
+    private long pawnHash;
+    // piece counts, 4 bits per piece index, updated with the bitboards
+    private long material;
+    // tapered evaluation terms from White's side, see PieceSquareTables
+    private int middlegame;
+    private int endgame;
+    private int phase;
+
+    public BitboardPosition() {
+        Arrays.fill(mailbox, NO_PIECE);
+    }
+
+    private static long materialFields(PieceType... types) {
+        long mask = 0;
+        for (PieceType type : types) {
+            mask |= 0xFL << (pieceIndex(WHITE, type) << 2) | 0xFL << (pieceIndex(BLACK, type) << 2);
+        }
+        return mask;
+    }
+
+    public static int pieceIndex(PieceColor color, PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    public static int pieceIndex(int color, PieceType type) {
+        return color * 6 + type.ordinal();
+    }
+
+    public static int colorOf(int piece) {
+        return piece / 6;
+    }
+
+    public static PieceType typeOf(int piece) {
+        return TYPES[piece % 6];
+    }
+
+    public long pieces(int piece) {
+        return pieces[piece];
+    }
+
+    public long pieces(PieceColor color, PieceType type) {
+        return pieces[pieceIndex(color, type)];
+    }
+
+    public long occupancy(int color) {
+        return colors[color];
+    }
+
+    public long occupancy(PieceColor color) {
+        return colors[color.ordinal()];
+    }
+
+    public long occupied() {
+        return colors[WHITE] | colors[BLACK];
+    }
+
+    public int pieceAt(int square) {
+        return mailbox[square];
+    }
+
+    public int kingSquare(PieceColor color) {
+        return kingSquares[color.ordinal()];
+    }
+
+    public int kingSquare(int color) {
+        return kingSquares[color];
+    }
+
+    /**
+     * Whether any piece of {@code byColor} attacks {@code square}. Probes outward from
+     * the target with the attack tables instead of generating the attacker's moves.
+     */
+    public boolean isSquareAttacked(int square, int byColor) {
+        int base = byColor * 6;
+        if ((Attacks.pawn(byColor ^ 1, square) & pieces[base + PieceType.PAWN.ordinal()]) != 0)
+            return true;
+        if ((Attacks.knight(square) & pieces[base + PieceType.KNIGHT.ordinal()]) != 0)
+            return true;
+        if ((Attacks.king(square) & pieces[base + PieceType.KING.ordinal()]) != 0)
+            return true;
+        long occupied = occupied();
+        long queens = pieces[base + PieceType.QUEEN.ordinal()];
+        if ((Attacks.bishop(square, occupied) & (pieces[base + PieceType.BISHOP.ordinal()] | queens)) != 0)
+            return true;
+        return (Attacks.rook(square, occupied) & (pieces[base + PieceType.ROOK.ordinal()] | queens)) != 0;
+    }
+
+    /**
+     * All pieces of {@code byColor} attacking {@code square} given an occupancy.
+     */
+    public long attackersTo(int square, int byColor, long occupied) {
+        int base = byColor * 6;
+        long queens = pieces[base + PieceType.QUEEN.ordinal()];
+        return (Attacks.pawn(byColor ^ 1, square) & pieces[base + PieceType.PAWN.ordinal()])
+                | (Attacks.knight(square) & pieces[base + PieceType.KNIGHT.ordinal()])
+                | (Attacks.king(square) & pieces[base + PieceType.KING.ordinal()])
+                | (Attacks.bishop(square, occupied) & (pieces[base + PieceType.BISHOP.ordinal()] | queens))
+                | (Attacks.rook(square, occupied) & (pieces[base + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    /**
+     * Whether the king of {@code color} is attacked. A missing king is never in check.
+     */
+    public boolean isInCheck(int color) {
+        int king = kingSquares[color];
+        return king != NO_SQUARE && isSquareAttacked(king, color ^ 1);
+    }
+
+    public int getEnPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int square) {
+        hash ^= enPassantKey(enPassantSquare) ^ enPassantKey(square);
+        this.enPassantSquare = square;
+    }
+
+    /**
+     * Whether a pawn could capture en passant on {@code square}, the square passed
+     * over by a double push. Callers only record the en-passant square when one can:
+     * otherwise it changes neither the moves nor the outcome, and keeping it would
+     * give repeated positions different keys.
+     */
+    public boolean isEnPassantCapturable(int square) {
+        // the target is on rank 3 after a White push and rank 6 after a Black one
+        int capturer = square < 32 ? BLACK : WHITE;
+        return (Attacks.pawn(capturer ^ 1, square) & pieces[capturer * 6 + PieceType.PAWN.ordinal()]) != 0;
+    }
+
+    public int getCastlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int rights) {
+        hash ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.CASTLING[rights];
+        this.castlingRights = rights;
+    }
+
+    public boolean isWhiteToMove() {
+        return whiteToMove;
+    }
+
+    public int sideToMove() {
+        return whiteToMove ? WHITE : BLACK;
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (this.whiteToMove != whiteToMove) {
+            hash ^= Zobrist.SIDE_TO_MOVE;
+            this.whiteToMove = whiteToMove;
+        }
+    }
+
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        this.halfmoveClock = halfmoveClock;
+    }
+
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        this.fullmoveNumber = fullmoveNumber;
+    }
+
+    /**
+     * Advance the move counters for a move by the side to move, before the side is
+     * switched: the halfmove clock resets on captures and pawn moves, and the
+     * fullmove number grows after Black's move.
+     */
+    public void advanceCounters(boolean irreversible) {
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+        if (!whiteToMove)
+            fullmoveNumber++;
+    }
+
+    /**
+     * Undo {@link #advanceCounters(boolean)} once the side to move has been switched
+     * back.
+     */
+    public void retreatCounters(int previousHalfmoveClock) {
+        halfmoveClock = previousHalfmoveClock;
+        if (!whiteToMove)
+            fullmoveNumber--;
+    }
+
+    /**
+     * 64-bit Zobrist key of pieces, side to move, castling rights and en-passant file.
+     */
+    public long hash() {
+        return hash;
+    }
+
+    /**
+     * Zobrist key of the pawn placement only, the same piece-square keys as
+     * {@link #hash()} restricted to pawns. Positions with the same pawns share it,
+     * which is what pawn-structure caches are keyed by.
+     */
+    public long pawnHash() {
+        return pawnHash;
+    }
+
+    /**
+     * Recompute the Zobrist key from scratch; equals {@link #hash()} unless the
+     * incremental updates have gone wrong.
+     */
+    public long computeHash() {
+        long h = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            if (mailbox[sq] != NO_PIECE)
+                h ^= Zobrist.PIECE_SQUARE[mailbox[sq]][sq];
+        }
+        if (!whiteToMove)
+            h ^= Zobrist.SIDE_TO_MOVE;
+        return h ^ Zobrist.CASTLING[castlingRights] ^ enPassantKey(enPassantSquare);
+    }
+
+    private static long enPassantKey(int square) {
+        return square == NO_SQUARE ? 0 : Zobrist.EN_PASSANT_FILE[square & 7];
+    }
+
+    public void put(int square, int piece) {
+        long b = Bitboards.bit(square);
+        pieces[piece] |= b;
+        colors[colorOf(piece)] |= b;
+        mailbox[square] = piece;
+        hash ^= Zobrist.PIECE_SQUARE[piece][square];
+        if (piece % 6 == PieceType.PAWN.ordinal())
+            pawnHash ^= Zobrist.PIECE_SQUARE[piece][square];
+        material += 1L << (piece << 2);
+        middlegame += PieceSquareTables.middlegame(piece, square);
+        endgame += PieceSquareTables.endgame(piece, square);
+        phase += PieceSquareTables.phase(piece);
+        if (piece % 6 == PieceType.KING.ordinal())
+            kingSquares[colorOf(piece)] = square;
+    }
+
+    public int remove(int square) {
+        int piece = mailbox[square];
+        if (piece != NO_PIECE) {
+            long b = ~Bitboards.bit(square);
+            pieces[piece] &= b;
+            colors[colorOf(piece)] &= b;
+            mailbox[square] = NO_PIECE;
+            hash ^= Zobrist.PIECE_SQUARE[piece][square];
+            if (piece % 6 == PieceType.PAWN.ordinal())
+                pawnHash ^= Zobrist.PIECE_SQUARE[piece][square];
+            material -= 1L << (piece << 2);
+            middlegame -= PieceSquareTables.middlegame(piece, square);
+            endgame -= PieceSquareTables.endgame(piece, square);
+            phase -= PieceSquareTables.phase(piece);
+            if (piece % 6 == PieceType.KING.ordinal()) {
+                long rest = pieces[piece];
+                kingSquares[colorOf(piece)] = rest == 0 ? NO_SQUARE : Bitboards.lsb(rest);
+            }
+        }
+        return piece;
+    }
+
+    /**
+     * Material signature: the number of pieces of each piece index, packed four bits
+     * per index (index {@code i} in bits {@code 4i..4i+3}). Two positions with the
+     * same signature have the same material.
+     */
+    public long materialSignature() {
+        return material;
+    }
+
+    /**
+     * Number of pieces of the given piece index, read from the material signature.
+     */
+    public int count(int piece) {
+        return (int) (material >>> (piece << 2)) & 15;
+    }
+
+    /**
+     * Sum of middlegame material and piece-square values from White's side, kept up
+     * to date by every put and remove.
+     */
+    public int middlegameScore() {
+        return middlegame;
+    }
+
+    /**
+     * Sum of endgame material and piece-square values from White's side.
+     */
+    public int endgameScore() {
+        return endgame;
+    }
+
+    /**
+     * Game phase from {@link PieceSquareTables#MAX_PHASE} (all pieces on) down to 0
+     * (kings and pawns only). Promotions can push it past the maximum.
+     */
+    public int gamePhase() {
+        return phase;
+    }
+
+    /**
+     * Whether neither side can possibly checkmate: bare kings, a single minor piece,
+     * or only bishops that all stand on squares of one colour.
+     */
+    public boolean isInsufficientMaterial() {
+        // any pawn, rook or queen keeps mating chances
+        if ((material & HEAVY_AND_PAWNS) != 0)
+            return false;
+        // no minors at all, or exactly one: a single bit that is the low bit of a field
+        long minors = material & MINORS;
+        if (minors == 0 || (Long.bitCount(minors) == 1 && (minors & UNITS) != 0))
+            return true;
+        if ((material & KNIGHTS) != 0)
+            return false;
+        long bishops = pieces[pieceIndex(WHITE, PieceType.BISHOP)] | pieces[pieceIndex(BLACK, PieceType.BISHOP)];
+        return (bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0;
+    }
+
+    /**
+     * Rights left after a move touching {@code square}: moving from or capturing on a
+     * king or rook home square clears the matching rights.
+     */
+    public static int castlingMask(int square) {
+        return CASTLING_MASK[square];
+    }
+
+    /**
+     * Square of the pawn taken by an en-passant capture: the to file on the from rank.
+     */
+    public static int enPassantVictim(int from, int to) {
+        return (from & ~7) | (to & 7);
+    }
+
+    public BitboardPosition copy() {
+        BitboardPosition p = new BitboardPosition();
+        p.copyFrom(this);
+        return p;
+    }
+
+    void copyFrom(BitboardPosition other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        System.arraycopy(other.mailbox, 0, mailbox, 0, mailbox.length);
+        kingSquares[WHITE] = other.kingSquares[WHITE];
+        kingSquares[BLACK] = other.kingSquares[BLACK];
+        enPassantSquare = other.enPassantSquare;
+        castlingRights = other.castlingRights;
+        whiteToMove = other.whiteToMove;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        hash = other.hash;
+        pawnHash = other.pawnHash;
+        material = other.material;
+        middlegame = other.middlegame;
+        endgame = other.endgame;
+        phase = other.phase;
+    }
+
+    /**
+     * Build a bitboard position from an object board.
+     */
+    public static BitboardPosition fromBoard(Board board) {
+        return board.position().copy();
+    }
+
+    /**
+     * Build an object board equivalent to this position.
+     */
+    public Board toBoard() {
+        Board board = new Board();
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = mailbox[sq];
+            if (piece == NO_PIECE)
+                continue;
+            board.setPieceAt(Bitboards.row(sq), Bitboards.col(sq), createPiece(piece));
+        }
+        board.setCastlingRights(castlingRights);
+        board.setHalfmoveClock(halfmoveClock);
+        board.setFullmoveNumber(fullmoveNumber);
+        if (enPassantSquare != NO_SQUARE) {
+            board.setEnPassantTarget(Bitboards.row(enPassantSquare), Bitboards.col(enPassantSquare));
+        }
+        board.setWhiteToMove(whiteToMove);
+        return board;
+    }
+
+    static Piece createPiece(int piece) {
+        return Piece.of(colorOf(piece) == WHITE ? PieceColor.WHITE : PieceColor.BLACK, typeOf(piece));
+    }
+}
@@ -0,0 +1,43 @@
+package chessengine.board;
+
+/**
+ * Square indexing and bit helpers shared by the bitboard code.
+ * Squares are numbered little-endian rank-file: a1 = 0, h1 = 7, a8 = 56, h8 = 63.
+ * Board rows keep their existing meaning (row 0 is Black's back rank), so
+ * {@link #square(int, int)} converts between the two.
+ */
+public final class Bitboards {
+    public static final long FILE_A = 0x0101010101010101L;
+    public static final long FILE_B = FILE_A << 1;
+    public static final long FILE_G = FILE_A << 6;
+    public static final long FILE_H = FILE_A << 7;
+    public static final long RANK_1 = 0xFFL;
+    public static final long RANK_2 = RANK_1 << 8;
+    public static final long RANK_4 = RANK_1 << 24;
+    public static final long RANK_5 = RANK_1 << 32;
+    public static final long RANK_7 = RANK_1 << 48;
+    public static final long RANK_8 = RANK_1 << 56;
+
+    private Bitboards() {
+    }
+
+    public static int square(int row, int col) {
+        return ((7 - row) << 3) | col;
+    }
+
+    public static int row(int square) {
+        return 7 - (square >>> 3);
+    }
+
+    public static int col(int square) {
+        return square & 7;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static int lsb(long bb) {
+        return Long.numberOfTrailingZeros(bb);
+    }
+}
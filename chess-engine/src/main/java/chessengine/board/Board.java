@@ -1,43 +1,182 @@
 package chessengine.board;
 
-import chessengine.piece.King;
-import chessengine.piece.Pawn;
 import chessengine.piece.Piece;
 import chessengine.piece.PieceColor;
-import chessengine.piece.Rook;
-import chessengine.piece.Knight;
-import chessengine.piece.Bishop;
-import chessengine.piece.Queen;
+import chessengine.piece.PieceType;
 import java.util.Optional;
 
 public class Board {
     public static final int SIZE = 8;
 
-    private final Square[][] squares;
-    private int enPassantRow = -1;
-    private int enPassantCol = -1;
-
-    public Board() {
-        squares = new Square[SIZE][SIZE];
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                squares[r][c] = new Square(r, c);
-            }
-        }
-    }
+    // shared immutable pieces indexed by Bitboards square, so copying a board is a
+    // flat array copy
+    private final Piece[] pieces = new Piece[64];
+    // bitboard mirror of the pieces, kept in sync by every mutator below
+    private final BitboardPosition position = new BitboardPosition();
+    // square views, created on first use; they read and write through this board
+    private Square[][] squares;
 
     public Optional<Piece> getPieceAt(int row, int col) {
-        return Optional.ofNullable(squares[row][col].getPiece());
+        return Optional.ofNullable(pieces[Bitboards.square(row, col)]);
     }
 
     public void setPieceAt(int row, int col, Piece piece) {
-        squares[row][col].setPiece(piece);
+        int sq = Bitboards.square(row, col);
+        pieces[sq] = piece;
+        position.remove(sq);
+        if (piece != null) {
+            position.put(sq, BitboardPosition.pieceIndex(piece.getColor(), piece.getType()));
+        }
+        if (isCastlingHomeSquare(sq)) {
+            setCastlingRights(position.getCastlingRights());
+        }
     }
 
     public Square getSquare(int row, int col) {
+        if (squares == null) {
+            squares = new Square[SIZE][SIZE];
+            for (int r = 0; r < SIZE; r++) {
+                for (int c = 0; c < SIZE; c++) {
+                    squares[r][c] = new Square(this, r, c);
+                }
+            }
+        }
         return squares[row][col];
     }
 
+    Piece pieceAt(int row, int col) {
+        return pieces[Bitboards.square(row, col)];
+    }
+
+    /**
+     * Piece on a {@link Bitboards} square index, or null.
+     */
+    public Piece pieceAt(int square) {
+        return pieces[square];
+    }
+
+    /**
+     * Place a piece on a square index, updating the bitboards but leaving castling
+     * rights alone. Used by Game's make/unmake, which manages the rights itself.
+     */
+    public void putPiece(int square, Piece piece) {
+        pieces[square] = piece;
+        position.put(square, BitboardPosition.pieceIndex(piece.getColor(), piece.getType()));
+    }
+
+    /**
+     * Remove and return the piece on a square index (null if empty), leaving castling
+     * rights alone.
+     */
+    public Piece removePiece(int square) {
+        Piece p = pieces[square];
+        if (p != null) {
+            pieces[square] = null;
+            position.remove(square);
+        }
+        return p;
+    }
+
+    /**
+     * Live bitboard view of this board. Callers must not mutate it directly; use
+     * {@link BitboardPosition#copy()} for simulations.
+     */
+    public BitboardPosition position() {
+        return position;
+    }
+
+    /**
+     * Zobrist key of the current position (pieces, side to move, castling rights and
+     * en-passant file). Maintained incrementally, so reading it is free.
+     */
+    public long hash() {
+        return position.hash();
+    }
+
+    /**
+     * Square index ({@link Bitboards}) of the given king, tracked as pieces move, or
+     * {@link BitboardPosition#NO_SQUARE} if it is not on the board.
+     */
+    public int getKingSquare(PieceColor color) {
+        return position.kingSquare(color);
+    }
+
+    /**
+     * Whether {@code byColor} attacks the given square index.
+     */
+    public boolean isSquareAttacked(int square, PieceColor byColor) {
+        return position.isSquareAttacked(square, byColor.ordinal());
+    }
+
+    public boolean isWhiteToMove() {
+        return position.isWhiteToMove();
+    }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        position.setWhiteToMove(whiteToMove);
+    }
+
+    /**
+     * Plies since the last capture or pawn move, as in the FEN halfmove clock.
+     */
+    public int getHalfmoveClock() {
+        return position.getHalfmoveClock();
+    }
+
+    public void setHalfmoveClock(int halfmoveClock) {
+        position.setHalfmoveClock(halfmoveClock);
+    }
+
+    /**
+     * FEN fullmove number: starts at 1 and grows after each Black move.
+     */
+    public int getFullmoveNumber() {
+        return position.getFullmoveNumber();
+    }
+
+    public void setFullmoveNumber(int fullmoveNumber) {
+        position.setFullmoveNumber(fullmoveNumber);
+    }
+
+    /**
+     * Castling rights as a 4-bit set of {@link BitboardPosition#WHITE_KINGSIDE},
+     * {@link BitboardPosition#WHITE_QUEENSIDE}, {@link BitboardPosition#BLACK_KINGSIDE}
+     * and {@link BitboardPosition#BLACK_QUEENSIDE}.
+     */
+    public int getCastlingRights() {
+        return position.getCastlingRights();
+    }
+
+    /**
+     * Set the castling rights. Rights whose king or rook is not on its home square
+     * are dropped, and they are dropped again whenever one of those squares changes.
+     */
+    public void setCastlingRights(int rights) {
+        int possible = 0;
+        if (isAt(4, PieceColor.WHITE, PieceType.KING)) {
+            if (isAt(7, PieceColor.WHITE, PieceType.ROOK))
+                possible |= BitboardPosition.WHITE_KINGSIDE;
+            if (isAt(0, PieceColor.WHITE, PieceType.ROOK))
+                possible |= BitboardPosition.WHITE_QUEENSIDE;
+        }
+        if (isAt(60, PieceColor.BLACK, PieceType.KING)) {
+            if (isAt(63, PieceColor.BLACK, PieceType.ROOK))
+                possible |= BitboardPosition.BLACK_KINGSIDE;
+            if (isAt(56, PieceColor.BLACK, PieceType.ROOK))
+                possible |= BitboardPosition.BLACK_QUEENSIDE;
+        }
+        position.setCastlingRights(rights & possible);
+    }
+
+    private boolean isAt(int sq, PieceColor color, PieceType type) {
+        Piece p = pieces[sq];
+        return p != null && p.getColor() == color && p.getType() == type;
+    }
+
+    private static boolean isCastlingHomeSquare(int sq) {
+        return sq == 0 || sq == 4 || sq == 7 || sq == 56 || sq == 60 || sq == 63;
+    }
+
     /**
      * Initialize a standard chess starting position with only pawns and kings.
      * White pieces are placed on rows 6 (pawns) and 7 (king), Black on rows 1 and 0 respectively.
@@ -46,73 +185,71 @@ public class Board {
         // clear board just in case
         for (int r = 0; r < SIZE; r++) {
             for (int c = 0; c < SIZE; c++) {
-                squares[r][c].setPiece(null);
+                setPieceAt(r, c, null);
             }
         }
+        clearEnPassant();
+        setWhiteToMove(true);
+        setHalfmoveClock(0);
+        setFullmoveNumber(1);
 
         // Pawns
         for (int c = 0; c < SIZE; c++) {
-            setPieceAt(6, c, new Pawn(PieceColor.WHITE));
-            setPieceAt(1, c, new Pawn(PieceColor.BLACK));
+            setPieceAt(6, c, Piece.of(PieceColor.WHITE, PieceType.PAWN));
+            setPieceAt(1, c, Piece.of(PieceColor.BLACK, PieceType.PAWN));
         }
 
         // Back rank pieces
         // White back rank (row 7)
-        setPieceAt(7, 0, new Rook(PieceColor.WHITE));
-        setPieceAt(7, 1, new Knight(PieceColor.WHITE));
-        setPieceAt(7, 2, new Bishop(PieceColor.WHITE));
-        setPieceAt(7, 3, new Queen(PieceColor.WHITE));
-        setPieceAt(7, 4, new King(PieceColor.WHITE));
-        setPieceAt(7, 5, new Bishop(PieceColor.WHITE));
-        setPieceAt(7, 6, new Knight(PieceColor.WHITE));
-        setPieceAt(7, 7, new Rook(PieceColor.WHITE));
+        setPieceAt(7, 0, Piece.of(PieceColor.WHITE, PieceType.ROOK));
+        setPieceAt(7, 1, Piece.of(PieceColor.WHITE, PieceType.KNIGHT));
+        setPieceAt(7, 2, Piece.of(PieceColor.WHITE, PieceType.BISHOP));
+        setPieceAt(7, 3, Piece.of(PieceColor.WHITE, PieceType.QUEEN));
+        setPieceAt(7, 4, Piece.of(PieceColor.WHITE, PieceType.KING));
+        setPieceAt(7, 5, Piece.of(PieceColor.WHITE, PieceType.BISHOP));
+        setPieceAt(7, 6, Piece.of(PieceColor.WHITE, PieceType.KNIGHT));
+        setPieceAt(7, 7, Piece.of(PieceColor.WHITE, PieceType.ROOK));
 
         // Black back rank (row 0)
-        setPieceAt(0, 0, new Rook(PieceColor.BLACK));
-        setPieceAt(0, 1, new Knight(PieceColor.BLACK));
-        setPieceAt(0, 2, new Bishop(PieceColor.BLACK));
-        setPieceAt(0, 3, new Queen(PieceColor.BLACK));
-        setPieceAt(0, 4, new King(PieceColor.BLACK));
-        setPieceAt(0, 5, new Bishop(PieceColor.BLACK));
-        setPieceAt(0, 6, new Knight(PieceColor.BLACK));
-        setPieceAt(0, 7, new Rook(PieceColor.BLACK));
+        setPieceAt(0, 0, Piece.of(PieceColor.BLACK, PieceType.ROOK));
+        setPieceAt(0, 1, Piece.of(PieceColor.BLACK, PieceType.KNIGHT));
+        setPieceAt(0, 2, Piece.of(PieceColor.BLACK, PieceType.BISHOP));
+        setPieceAt(0, 3, Piece.of(PieceColor.BLACK, PieceType.QUEEN));
+        setPieceAt(0, 4, Piece.of(PieceColor.BLACK, PieceType.KING));
+        setPieceAt(0, 5, Piece.of(PieceColor.BLACK, PieceType.BISHOP));
+        setPieceAt(0, 6, Piece.of(PieceColor.BLACK, PieceType.KNIGHT));
+        setPieceAt(0, 7, Piece.of(PieceColor.BLACK, PieceType.ROOK));
+
+        setCastlingRights(BitboardPosition.WHITE_KINGSIDE | BitboardPosition.WHITE_QUEENSIDE
+                | BitboardPosition.BLACK_KINGSIDE | BitboardPosition.BLACK_QUEENSIDE);
     }
 
     public void clearEnPassant() {
-        this.enPassantRow = -1;
-        this.enPassantCol = -1;
+        position.setEnPassantSquare(BitboardPosition.NO_SQUARE);
     }
 
     public void setEnPassantTarget(int row, int col) {
-        this.enPassantRow = row;
-        this.enPassantCol = col;
+        position.setEnPassantSquare(Bitboards.square(row, col));
     }
 
     public int getEnPassantRow() {
-        return enPassantRow;
+        int ep = position.getEnPassantSquare();
+        return ep == BitboardPosition.NO_SQUARE ? -1 : Bitboards.row(ep);
     }
 
     public int getEnPassantCol() {
-        return enPassantCol;
+        int ep = position.getEnPassantSquare();
+        return ep == BitboardPosition.NO_SQUARE ? -1 : Bitboards.col(ep);
     }
 
     /**
-     * Create a shallow copy of this board (copies piece references).
-     * Create a deep-ish copy of this board: copies pieces via Piece.copy() so simulations do not
-     * mutate the original piece instances.
+     * Copy of this board. Pieces are immutable and shared, so this copies the piece
+     * array and the bitboard state and nothing else.
      */
     public Board copy() {
         Board nb = new Board();
-        for (int r = 0; r < SIZE; r++) {
-            for (int c = 0; c < SIZE; c++) {
-                Piece p = this.squares[r][c].getPiece();
-                nb.squares[r][c].setPiece(p == null ? null : p.copy());
-            }
-        }
-        nb.enPassantRow = this.enPassantRow;
-        nb.enPassantCol = this.enPassantCol;
+        System.arraycopy(this.pieces, 0, nb.pieces, 0, pieces.length);
+        nb.position.copyFrom(this.position);
         return nb;
     }
 }
-
-
@@ -0,0 +1,189 @@
+package chessengine.board;
+
+import chessengine.piece.Piece;
+import chessengine.piece.PieceColor;
+import chessengine.piece.PieceType;
+
+/**
+ * Forsyth-Edwards Notation for boards: piece placement, side to move, castling
+ * rights, en-passant target, halfmove clock and fullmove number.
+ * The writer appends straight into a caller-supplied buffer so a caller that reuses
+ * its {@link StringBuilder} produces no garbage besides the final string.
+ */
+public final class Fen {
+    public static final String START_POSITION = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    // white letters indexed by PieceType ordinal
+    private static final char[] LETTERS = { 'K', 'Q', 'R', 'B', 'N', 'P' };
+    private static final PieceType[] TYPES = PieceType.values();
+
+    private Fen() {
+    }
+
+    /**
+     * Parse a FEN string into a new board. The halfmove clock and fullmove number
+     * may be omitted and default to 0 and 1. An en-passant square no pawn can
+     * capture on is ignored, so the board matches the same position reached in play.
+     *
+     * @throws IllegalArgumentException if the string is not valid FEN
+     */
+    public static Board parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw invalid(fen, "expected 4 to 6 fields");
+        }
+        Board board = new Board();
+        parsePlacement(fen, fields[0], board);
+
+        switch (fields[1]) {
+            case "w" -> board.setWhiteToMove(true);
+            case "b" -> board.setWhiteToMove(false);
+            default -> throw invalid(fen, "side to move must be w or b");
+        }
+
+        int rights = 0;
+        if (!fields[2].equals("-")) {
+            for (char c : fields[2].toCharArray()) {
+                rights |= switch (c) {
+                    case 'K' -> BitboardPosition.WHITE_KINGSIDE;
+                    case 'Q' -> BitboardPosition.WHITE_QUEENSIDE;
+                    case 'k' -> BitboardPosition.BLACK_KINGSIDE;
+                    case 'q' -> BitboardPosition.BLACK_QUEENSIDE;
+                    default -> throw invalid(fen, "bad castling field");
+                };
+            }
+        }
+        board.setCastlingRights(rights);
+
+        if (!fields[3].equals("-")) {
+            String ep = fields[3];
+            if (ep.length() != 2 || ep.charAt(0) < 'a' || ep.charAt(0) > 'h'
+                    || (ep.charAt(1) != '3' && ep.charAt(1) != '6')) {
+                throw invalid(fen, "bad en-passant square");
+            }
+            int square = Bitboards.square('8' - ep.charAt(1), ep.charAt(0) - 'a');
+            if (board.position().isEnPassantCapturable(square))
+                board.setEnPassantTarget('8' - ep.charAt(1), ep.charAt(0) - 'a');
+        }
+
+        board.setHalfmoveClock(fields.length > 4 ? parseCounter(fen, fields[4], 0) : 0);
+        board.setFullmoveNumber(fields.length > 5 ? parseCounter(fen, fields[5], 1) : 1);
+        return board;
+    }
+
+    private static void parsePlacement(String fen, String placement, Board board) {
+        String[] rows = placement.split("/", -1);
+        if (rows.length != Board.SIZE) {
+            throw invalid(fen, "expected 8 ranks");
+        }
+        for (int row = 0; row < Board.SIZE; row++) {
+            int col = 0;
+            for (char c : rows[row].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    col += c - '0';
+                    continue;
+                }
+                PieceType type = typeOf(Character.toUpperCase(c));
+                if (type == null || col >= Board.SIZE) {
+                    throw invalid(fen, "bad rank " + rows[row]);
+                }
+                PieceColor color = Character.isUpperCase(c) ? PieceColor.WHITE : PieceColor.BLACK;
+                board.setPieceAt(row, col++, Piece.of(color, type));
+            }
+            if (col != Board.SIZE) {
+                throw invalid(fen, "bad rank " + rows[row]);
+            }
+        }
+    }
+
+    private static PieceType typeOf(char letter) {
+        for (int i = 0; i < LETTERS.length; i++) {
+            if (LETTERS[i] == letter)
+                return TYPES[i];
+        }
+        return null;
+    }
+
+    private static int parseCounter(String fen, String field, int min) {
+        try {
+            int value = Integer.parseInt(field);
+            if (value >= min)
+                return value;
+        } catch (NumberFormatException ignored) {
+        }
+        throw invalid(fen, "bad move counter " + field);
+    }
+
+    private static IllegalArgumentException invalid(String fen, String reason) {
+        return new IllegalArgumentException("Invalid FEN (" + reason + "): " + fen);
+    }
+
+    /**
+     * FEN of the board as a new string.
+     */
+    public static String toFen(Board board) {
+        StringBuilder sb = new StringBuilder(90);
+        write(board, sb);
+        return sb.toString();
+    }
+
+    /**
+     * Append the FEN of the board to {@code out}.
+     */
+    public static void write(Board board, StringBuilder out) {
+        write(board.position(), out);
+    }
+
+    /**
+     * Append the FEN of a bitboard position to {@code out}.
+     */
+    public static void write(BitboardPosition pos, StringBuilder out) {
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = pos.pieceAt(rank * 8 + file);
+                if (piece == BitboardPosition.NO_PIECE) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                char letter = LETTERS[piece % 6];
+                out.append(BitboardPosition.colorOf(piece) == BitboardPosition.WHITE
+                        ? letter : Character.toLowerCase(letter));
+            }
+            if (empty > 0)
+                out.append((char) ('0' + empty));
+            if (rank > 0)
+                out.append('/');
+        }
+
+        out.append(' ').append(pos.isWhiteToMove() ? 'w' : 'b').append(' ');
+
+        int rights = pos.getCastlingRights();
+        if (rights == 0) {
+            out.append('-');
+        } else {
+            if ((rights & BitboardPosition.WHITE_KINGSIDE) != 0)
+                out.append('K');
+            if ((rights & BitboardPosition.WHITE_QUEENSIDE) != 0)
+                out.append('Q');
+            if ((rights & BitboardPosition.BLACK_KINGSIDE) != 0)
+                out.append('k');
+            if ((rights & BitboardPosition.BLACK_QUEENSIDE) != 0)
+                out.append('q');
+        }
+
+        out.append(' ');
+        int ep = pos.getEnPassantSquare();
+        if (ep == BitboardPosition.NO_SQUARE) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + (ep & 7))).append((char) ('1' + (ep >>> 3)));
+        }
+
+        out.append(' ').append(pos.getHalfmoveClock()).append(' ').append(pos.getFullmoveNumber());
+    }
+}
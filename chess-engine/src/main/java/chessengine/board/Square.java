@@ -3,11 +3,17 @@ package chessengine.board;
 import chessengine.piece.Piece;
 
 public class Square {
+    private final Board board; // owning board, null for detached squares
     private final int row;
     private final int col;
-    private Piece piece;
+    private Piece piece; // only used when detached
 
     public Square(int row, int col) {
+        this(null, row, col);
+    }
+
+    Square(Board board, int row, int col) {
+        this.board = board;
         this.row = row;
         this.col = col;
     }
@@ -21,15 +27,19 @@ public class Square {
     }
 
     public Piece getPiece() {
-        return piece;
+        return board != null ? board.pieceAt(row, col) : piece;
     }
 
     public void setPiece(Piece piece) {
-        this.piece = piece;
+        if (board != null) {
+            board.setPieceAt(row, col, piece);
+        } else {
+            this.piece = piece;
+        }
     }
 
     public boolean isEmpty() {
-        return piece == null;
+        return getPiece() == null;
     }
 }
 
@@ -0,0 +1,57 @@
+package chessengine.board;
+
+/**
+ * Random keys for Zobrist hashing. Generated from a fixed seed when the class is
+ * loaded, so hashes are stable across runs and the tables are read-only.
+ */
+public final class Zobrist {
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long SIDE_TO_MOVE;
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+
+    static {
+        long seed = 0x5DEECE66DL;
+        for (int piece = 0; piece < 12; piece++) {
+            for (int sq = 0; sq < 64; sq++) {
+                seed = splitMix(seed);
+                PIECE_SQUARE[piece][sq] = mix(seed);
+            }
+        }
+        seed = splitMix(seed);
+        SIDE_TO_MOVE = mix(seed);
+        // each right gets a key; a rights mask hashes as the xor of its bits
+        long[] rightKeys = new long[4];
+        for (int i = 0; i < 4; i++) {
+            seed = splitMix(seed);
+            rightKeys[i] = mix(seed);
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            for (int i = 0; i < 4; i++) {
+                if ((rights & (1 << i)) != 0)
+                    CASTLING[rights] ^= rightKeys[i];
+            }
+        }
+        for (int file = 0; file < 8; file++) {
+            seed = splitMix(seed);
+            EN_PASSANT_FILE[file] = mix(seed);
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    public static long pieceSquare(int piece, int square) {
+        return PIECE_SQUARE[piece][square];
+    }
+
+    private static long splitMix(long seed) {
+        return seed + 0x9E3779B97F4A7C15L;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,22 +1,39 @@
 package chessengine.game;
 
+import chessengine.board.BitboardPosition;
+import chessengine.board.Bitboards;
 import chessengine.board.Board;
-import chessengine.board.Square;
+import chessengine.board.Fen;
 import chessengine.move.Move;
 import chessengine.move.MoveGenerator;
+import chessengine.move.MoveList;
+import chessengine.move.Moves;
 import chessengine.piece.PieceColor;
-import chessengine.piece.King;
-import chessengine.piece.Pawn;
 import chessengine.move.MoveType;
 import chessengine.piece.Piece;
+import chessengine.piece.PieceType;
 import java.util.Objects;
 import java.util.List;
 
 public class Game {
+    // the generator keeps no state, so one instance serves every game
+    private static final MoveGenerator GENERATOR = new MoveGenerator();
+
     private final Board board;
     private Player whitePlayer;
     private Player blackPlayer;
-    private boolean whiteToMove = true;
+
+    // undo stack for makeMove/unmakeMove: the move, the piece it captured and a
+    // packed int of en-passant square, castling rights and halfmove clock
+    private int[] undoMoves = new int[64];
+    private Piece[] undoCaptured = new Piece[64];
+    private int[] undoState = new int[64];
+    private int undoSize;
+
+    // Zobrist keys of the positions before each move played, oldest first; only the
+    // tail since the last capture or pawn move can ever repeat
+    private long[] keyHistory = new long[64];
+    private int keyCount;
 
     public Game() {
         this.board = new Board();
@@ -24,7 +41,15 @@ public class Game {
 
     public Game(Board board, boolean whiteToMove) {
         this.board = board;
-        this.whiteToMove = whiteToMove;
+        board.setWhiteToMove(whiteToMove);
+    }
+
+    /**
+     * Start a game from a FEN position (see {@link Fen}).
+     */
+    public static Game fromFen(String fen) {
+        Board board = Fen.parse(fen);
+        return new Game(board, board.isWhiteToMove());
     }
 
     public Board getBoard() {
@@ -32,115 +57,300 @@ public class Game {
     }
 
     public PieceColor getActiveColor() {
-        return whiteToMove ? PieceColor.WHITE : PieceColor.BLACK;
+        return board.isWhiteToMove() ? PieceColor.WHITE : PieceColor.BLACK;
     }
 
     /**
-     * Apply the given move to the board.
-     * TODO: validate more conditions (check, pins, promotion, etc.)
+     * Apply the given move to the board after checking that it is legal for the
+     * side to move.
+     *
+     * @throws IllegalArgumentException if the move is not legal
      */
     public void applyMove(Move move) {
-        // Only accept moves that are legal (do not leave king in check, and satisfy
-        // castling rules)
-        PieceColor currentColor = whiteToMove ? PieceColor.WHITE : PieceColor.BLACK;
-        List<Move> legalMoves = legalMovesForColor(currentColor);
-        Move matchedMove = null;
-        for (Move lm : legalMoves) {
-            if (lm.getFromRow() == move.getFromRow()
-                    && lm.getFromCol() == move.getFromCol()
-                    && lm.getToRow() == move.getToRow()
-                    && lm.getToCol() == move.getToCol()
-                    && lm.getType() == move.getType()) {
-                if (move.getType() == MoveType.PROMOTION) {
-                    if (move.getPromotionPiece() != null && move.getPromotionPiece().equals(lm.getPromotionPiece())) {
-                        matchedMove = lm;
-                        break;
-                    }
-                } else {
-                    matchedMove = lm;
-                    break;
-                }
-            }
+        // promotion must specify piece
+        if (move.getType() == MoveType.PROMOTION && move.getPromotionPiece() == null) {
+            throw new IllegalArgumentException("Promotion move must specify promotionPiece");
         }
-        if (matchedMove == null) {
+        int packed = pack(move);
+        if (!GENERATOR.isLegal(board.position(), packed)) {
             throw new IllegalArgumentException("Illegal move");
         }
+        makeMove(packed);
+    }
 
-        // promotion must specify piece
-        if (move.getType() == MoveType.PROMOTION && move.getPromotionPiece() == null) {
-            throw new IllegalArgumentException("Promotion move must specify promotionPiece");
+    /**
+     * Apply a move that the caller has already validated for the current position
+     * (one returned by {@link #findLegalMove}, the legal move list or a bot search),
+     * skipping the legality check.
+     */
+    public void applyValidatedMove(Move move) {
+        makeMove(pack(move));
+    }
+
+    /**
+     * Whether the move is legal for the side to move. Only this move is examined;
+     * no move list is generated.
+     */
+    public boolean isLegal(Move move) {
+        if (move.getType() == MoveType.PROMOTION && move.getPromotionPiece() == null)
+            return false;
+        return GENERATOR.isLegal(board.position(), pack(move));
+    }
+
+    /**
+     * The legal move from one square to another for the side to move, with its
+     * type (capture, castling, en passant, promotion) worked out from the board, or
+     * null if there is none. {@code promotion} is required for pawn moves to the
+     * last rank and ignored otherwise.
+     */
+    public Move findLegalMove(int fromRow, int fromCol, int toRow, int toCol, PieceType promotion) {
+        int from = Bitboards.square(fromRow, fromCol);
+        int to = Bitboards.square(toRow, toCol);
+        BitboardPosition position = board.position();
+        int piece = position.pieceAt(from);
+        if (piece == BitboardPosition.NO_PIECE)
+            return null;
+        PieceType type = BitboardPosition.typeOf(piece);
+        int packed;
+        if (type == PieceType.KING && Math.abs(to - from) == 2) {
+            packed = Moves.encode(from, to, Moves.CASTLING);
+        } else if (type == PieceType.PAWN && (toRow == 0 || toRow == Board.SIZE - 1)) {
+            if (promotion == null)
+                return null;
+            packed = Moves.encode(from, to, Moves.PROMOTION, promotion);
+        } else if (type == PieceType.PAWN && to == position.getEnPassantSquare() && fromCol != toCol) {
+            packed = Moves.encode(from, to, Moves.EN_PASSANT);
+        } else {
+            packed = Moves.encode(from, to,
+                    position.pieceAt(to) != BitboardPosition.NO_PIECE ? Moves.CAPTURE : Moves.NORMAL);
         }
+        return GENERATOR.isLegal(position, packed) ? Moves.toMove(packed) : null;
+    }
 
-        // perform move
-        int fr = move.getFromRow();
-        int fc = move.getFromCol();
-        int tr = move.getToRow();
-        int tc = move.getToCol();
-        Square fromSq = board.getSquare(fr, fc);
-        Square toSq = board.getSquare(tr, tc);
-        // special handling: en passant capture
-        if (move.getType() == MoveType.EN_PASSANT) {
-            // captured pawn is on the fromRow, toCol
-            board.getSquare(fr, tc).setPiece(null);
+    private static int pack(Move move) {
+        int packed = move.encode();
+        if (move.getType() != MoveType.PROMOTION) {
+            // the promotion piece only matters for promotions
+            packed = Moves.encode(Moves.from(packed), Moves.to(packed), Moves.type(packed));
         }
+        return packed;
+    }
+
+    public void makeMove(Move move) {
+        makeMove(move.encode());
+    }
+
+    /**
+     * Play a pseudo-legal move for the side to move in place, recording what is
+     * needed to take it back with {@link #unmakeMove()}. No legality check is done;
+     * use {@link #applyMove(Move)} for untrusted moves.
+     */
+    public void makeMove(int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int type = Moves.type(move);
+        BitboardPosition position = board.position();
+        Piece moving = board.pieceAt(from);
+        pushKey(position.hash());
+        int state = (position.getEnPassantSquare() + 1) | position.getCastlingRights() << 7
+                | position.getHalfmoveClock() << 11;
+
+        // en passant: captured pawn is on the from row, to column
+        Piece captured = board.removePiece(
+                type == Moves.EN_PASSANT ? BitboardPosition.enPassantVictim(from, to) : to);
+        board.removePiece(from);
+
+        if (type == Moves.PROMOTION) {
+            PieceType promotion = Moves.promotionType(move) != null ? Moves.promotionType(move) : PieceType.QUEEN;
+            board.putPiece(to, Piece.of(moving.getColor(), promotion));
+        } else {
+            board.putPiece(to, moving);
+        }
+
+        // castling: move rook accordingly (king-side rook from col 7 to tc-1,
+        // queen-side rook from col 0 to tc+1)
+        if (type == Moves.CASTLING) {
+            boolean kingSide = to > from;
+            board.putPiece(kingSide ? to - 1 : to + 1, board.removePiece(kingSide ? from + 3 : from - 4));
+        }
+
+        position.setCastlingRights(position.getCastlingRights()
+                & BitboardPosition.castlingMask(from) & BitboardPosition.castlingMask(to));
+
+        // update en passant target: the square passed over by a double pawn push,
+        // kept only if an enemy pawn can take on it so repetitions still match
+        position.setEnPassantSquare(BitboardPosition.NO_SQUARE);
+        if (moving.getType() == PieceType.PAWN && Math.abs(to - from) == 16
+                && position.isEnPassantCapturable((from + to) >>> 1)) {
+            position.setEnPassantSquare((from + to) >>> 1);
+        }
+
+        position.advanceCounters(captured != null || moving.getType() == PieceType.PAWN);
+        pushUndo(move, captured, state);
+        position.setWhiteToMove(!position.isWhiteToMove());
+    }
+
+    /**
+     * Take back the last move played with {@link #makeMove(int)} or
+     * {@link #applyMove(Move)}, restoring the captured piece, en-passant square,
+     * castling rights and move counters.
+     */
+    public void unmakeMove() {
+        if (undoSize == 0) {
+            throw new IllegalStateException("No move to undo");
+        }
+        undoSize--;
+        keyCount--;
+        int move = undoMoves[undoSize];
+        Piece captured = undoCaptured[undoSize];
+        int state = undoState[undoSize];
+        undoCaptured[undoSize] = null;
+
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int type = Moves.type(move);
+
+        if (type == Moves.CASTLING) {
+            boolean kingSide = to > from;
+            board.putPiece(kingSide ? from + 3 : from - 4, board.removePiece(kingSide ? to - 1 : to + 1));
+        }
+
+        Piece moving = board.removePiece(to);
+        if (type == Moves.PROMOTION) {
+            moving = Piece.of(moving.getColor(), PieceType.PAWN);
+        }
+        board.putPiece(from, moving);
+        if (captured != null) {
+            board.putPiece(type == Moves.EN_PASSANT ? BitboardPosition.enPassantVictim(from, to) : to, captured);
+        }
+
+        BitboardPosition position = board.position();
+        position.setEnPassantSquare((state & 127) - 1);
+        position.setCastlingRights((state >>> 7) & 15);
+        position.setWhiteToMove(!position.isWhiteToMove());
+        position.retreatCounters(state >>> 11);
+    }
+
+    /**
+     * Pass the turn without moving, for null-move pruning in search. The side to
+     * move must not be in check. Only the en-passant square and side change; the
+     * halfmove clock is reset so repetition checks never look back across the null
+     * move. Take it back with {@link #unmakeNullMove()}.
+     */
+    public void makeNullMove() {
+        BitboardPosition position = board.position();
+        pushKey(position.hash());
+        int state = (position.getEnPassantSquare() + 1) | position.getCastlingRights() << 7
+                | position.getHalfmoveClock() << 11;
+        position.setEnPassantSquare(BitboardPosition.NO_SQUARE);
+        position.advanceCounters(true);
+        pushUndo(Moves.NONE, null, state);
+        position.setWhiteToMove(!position.isWhiteToMove());
+    }
 
-        Piece moving = fromSq.getPiece();
-        toSq.setPiece(moving);
-        fromSq.setPiece(null);
-
-        // promotion
-        if (move.getType() == MoveType.PROMOTION && move.getPromotionPiece() != null) {
-            chessengine.piece.PieceType pt = move.getPromotionPiece();
-            Piece promoted = switch (pt) {
-                case QUEEN -> new chessengine.piece.Queen(moving.getColor());
-                case ROOK -> new chessengine.piece.Rook(moving.getColor());
-                case BISHOP -> new chessengine.piece.Bishop(moving.getColor());
-                case KNIGHT -> new chessengine.piece.Knight(moving.getColor());
-                default -> moving;
-            };
-            promoted.setHasMoved(true);
-            toSq.setPiece(promoted);
+    /**
+     * Take back a {@link #makeNullMove()}.
+     */
+    public void unmakeNullMove() {
+        if (undoSize == 0 || undoMoves[undoSize - 1] != Moves.NONE) {
+            throw new IllegalStateException("No null move to undo");
         }
+        undoSize--;
+        keyCount--;
+        int state = undoState[undoSize];
+        BitboardPosition position = board.position();
+        position.setEnPassantSquare((state & 127) - 1);
+        position.setWhiteToMove(!position.isWhiteToMove());
+        position.retreatCounters(state >>> 11);
+    }
 
-        // castling: move rook accordingly
-        if (move.getType() == chessengine.move.MoveType.CASTLING) {
-            // king moved from fc to tc; determine side
-            if (tc > fc) {
-                // king-side: rook from col 7 to tc-1
-                Square rookFrom = board.getSquare(fr, 7);
-                Square rookTo = board.getSquare(fr, tc - 1);
-                rookTo.setPiece(rookFrom.getPiece());
-                rookFrom.setPiece(null);
-                if (rookTo.getPiece() != null)
-                    rookTo.getPiece().setHasMoved(true);
-            } else {
-                // queen-side: rook from col 0 to tc+1
-                Square rookFrom = board.getSquare(fr, 0);
-                Square rookTo = board.getSquare(fr, tc + 1);
-                rookTo.setPiece(rookFrom.getPiece());
-                rookFrom.setPiece(null);
-                if (rookTo.getPiece() != null)
-                    rookTo.getPiece().setHasMoved(true);
-            }
+    private void pushUndo(int move, Piece captured, int state) {
+        if (undoSize == undoMoves.length) {
+            int n = undoSize * 2;
+            undoMoves = java.util.Arrays.copyOf(undoMoves, n);
+            undoCaptured = java.util.Arrays.copyOf(undoCaptured, n);
+            undoState = java.util.Arrays.copyOf(undoState, n);
         }
+        undoMoves[undoSize] = move;
+        undoCaptured[undoSize] = captured;
+        undoState[undoSize] = state;
+        undoSize++;
+    }
 
-        // mark moved
-        if (moving != null)
-            moving.setHasMoved(true);
-
-        // update en passant target
-        board.clearEnPassant();
-        if (moving != null && moving instanceof Pawn) {
-            int diff = tr - fr;
-            if (Math.abs(diff) == 2) {
-                // en passant target is the square passed over
-                int passedRow = fr + (diff / 2);
-                board.setEnPassantTarget(passedRow, fc);
-            }
+    private void pushKey(long key) {
+        if (keyCount == keyHistory.length) {
+            keyHistory = java.util.Arrays.copyOf(keyHistory, keyCount * 2);
         }
+        keyHistory[keyCount++] = key;
+    }
 
-        // switch turn
-        whiteToMove = !whiteToMove;
+    /**
+     * Copy of this game on a copied board, for callers that search with
+     * make/unmake while the original stays visible to other threads. The undo
+     * history is not copied, but the position keys are, so the copy still sees
+     * repetitions of earlier positions.
+     */
+    public Game copy() {
+        Game copy = new Game(board.copy(), board.isWhiteToMove());
+        copy.keyHistory = java.util.Arrays.copyOf(keyHistory, Math.max(keyHistory.length, 64));
+        copy.keyCount = keyCount;
+        return copy;
+    }
+
+    /**
+     * Plies since the last capture or pawn move.
+     */
+    public int getHalfmoveClock() {
+        return board.getHalfmoveClock();
+    }
+
+    /**
+     * Whether the current position occurred before, with the same side to move,
+     * castling rights and en-passant file. Searches treat a single repetition as a
+     * draw, since the side that could avoid it would have.
+     */
+    public boolean isRepetition() {
+        return repetitions(1) >= 1;
+    }
+
+    /**
+     * Whether the current position has now occurred for the third time.
+     */
+    public boolean isThreefoldRepetition() {
+        return repetitions(2) >= 2;
+    }
+
+    /**
+     * Whether fifty moves by each side have passed without a capture or pawn move.
+     */
+    public boolean isFiftyMoveRule() {
+        return board.getHalfmoveClock() >= 100;
+    }
+
+    /**
+     * Whether neither side has enough material left to checkmate (K v K, K+minor v K,
+     * or bishops all on one square colour). Answered from the material signature the
+     * board keeps up to date, so it costs no scan.
+     */
+    public boolean isInsufficientMaterial() {
+        return board.position().isInsufficientMaterial();
+    }
+
+    /**
+     * Earlier occurrences of the current position, counting up to {@code enough}.
+     * A capture or pawn move can never be undone, so only the positions since the
+     * last one (the halfmove clock) are scanned, and only every other one, since the
+     * side to move must match.
+     */
+    private int repetitions(int enough) {
+        long key = board.hash();
+        int oldest = Math.max(0, keyCount - board.getHalfmoveClock());
+        int count = 0;
+        for (int i = keyCount - 2; i >= oldest; i -= 2) {
+            if (keyHistory[i] == key && ++count >= enough)
+                break;
+        }
+        return count;
     }
 
     /**
@@ -148,7 +358,7 @@ public class Game {
      * king in check).
      */
     public List<Move> legalMovesForCurrentPlayer() {
-        PieceColor movingColor = whiteToMove ? PieceColor.WHITE : PieceColor.BLACK;
+        PieceColor movingColor = getActiveColor();
         return legalMovesForColor(movingColor);
     }
 
@@ -156,102 +366,58 @@ public class Game {
      * Return legal moves for the specified color.
      */
     public List<Move> legalMovesForColor(PieceColor color) {
-        boolean forWhite = color == PieceColor.WHITE;
-        MoveGenerator generator = new MoveGenerator();
-        List<Move> pseudo = generator.generateAllMoves(board, forWhite);
-        java.util.ArrayList<Move> legal = new java.util.ArrayList<>();
-        for (Move m : pseudo) {
-            // Castling safety checks: king must not be in check, must not pass through or
-            // end on attacked square
-            if (m.getType() == chessengine.move.MoveType.CASTLING) {
-                // if king currently in check, cannot castle
-                if (isKingInCheck(board, color)) {
-                    continue;
-                }
-                int fr = m.getFromRow();
-                int fc = m.getFromCol();
-                int tc = m.getToCol();
-                int stepDir = tc > fc ? 1 : -1;
-                boolean blockedByAttack = false;
-                // simulate king moving one step at a time (including final)
-                int steps = Math.abs(tc - fc);
-                for (int i = 1; i <= steps; i++) {
-                    int stepCol = fc + i * stepDir;
-                    Board tmp = board.copy();
-                    Square fromTmp = tmp.getSquare(fr, fc);
-                    Square toTmp = tmp.getSquare(fr, stepCol);
-                    toTmp.setPiece(fromTmp.getPiece());
-                    fromTmp.setPiece(null);
-                    // do not move rook in this simulation; only king movement matters for
-                    // checked-through rule
-                    if (isKingInCheck(tmp, color)) {
-                        blockedByAttack = true;
-                        break;
-                    }
-                }
-                if (blockedByAttack)
-                    continue;
-                // if passed all checks, now perform full simulation (including rook) and final
-                // check below
-            }
-
-            Board copy = board.copy();
-            Square from = copy.getSquare(m.getFromRow(), m.getFromCol());
-            Square to = copy.getSquare(m.getToRow(), m.getToCol());
-            // handle en passant simulation: remove captured pawn
-            if (m.getType() == chessengine.move.MoveType.EN_PASSANT) {
-                copy.getSquare(m.getFromRow(), m.getToCol()).setPiece(null);
-            }
-            // perform move
-            to.setPiece(from.getPiece());
-            from.setPiece(null);
-
-            // handle promotion simulation
-            if (m.getType() == chessengine.move.MoveType.PROMOTION && m.getPromotionPiece() != null) {
-                chessengine.piece.PieceType pt = m.getPromotionPiece();
-                Piece promoted = switch (pt) {
-                    case QUEEN -> new chessengine.piece.Queen(color);
-                    case ROOK -> new chessengine.piece.Rook(color);
-                    case BISHOP -> new chessengine.piece.Bishop(color);
-                    case KNIGHT -> new chessengine.piece.Knight(color);
-                    default -> to.getPiece();
-                };
-                to.setPiece(promoted);
-            }
-
-            // handle castling simulation: move rook
-            if (m.getType() == chessengine.move.MoveType.CASTLING) {
-                int fr = m.getFromRow();
-                int fc = m.getFromCol();
-                int tc = m.getToCol();
-                if (tc > fc) {
-                    Square rookFrom = copy.getSquare(fr, 7);
-                    Square rookTo = copy.getSquare(fr, tc - 1);
-                    rookTo.setPiece(rookFrom.getPiece());
-                    rookFrom.setPiece(null);
-                } else {
-                    Square rookFrom = copy.getSquare(fr, 0);
-                    Square rookTo = copy.getSquare(fr, tc + 1);
-                    rookTo.setPiece(rookFrom.getPiece());
-                    rookFrom.setPiece(null);
-                }
-            }
-
-            if (!isKingInCheck(copy, color)) {
-                legal.add(m);
-            }
-        }
-        return legal;
+        MoveList legal = new MoveList();
+        legalMoves(board.position(), color, legal);
+        return legal.toMoves();
+    }
+
+    public static List<Move> legalMoves(BitboardPosition position, PieceColor color) {
+        MoveList legal = new MoveList();
+        legalMoves(position, color, legal);
+        return legal.toMoves();
+    }
+
+    /**
+     * Fill {@code out} with the legal packed moves for the specified color on a
+     * bitboard position, using the pin- and check-aware generator.
+     */
+    public static void legalMoves(BitboardPosition position, PieceColor color, MoveList out) {
+        out.clear();
+        GENERATOR.generateLegalMoves(position, color == PieceColor.WHITE, out);
     }
 
     public boolean isCheckmate(PieceColor color) {
-        List<Move> legal = legalMovesForColor(color);
-        return legal.isEmpty() && isKingInCheck(color);
+        return !hasLegalMove(color) && isKingInCheck(color);
     }
 
     public boolean isStalemate(PieceColor color) {
-        List<Move> legal = legalMovesForColor(color);
-        return legal.isEmpty() && !isKingInCheck(color);
+        return !hasLegalMove(color) && !isKingInCheck(color);
+    }
+
+    /**
+     * Whether the given color has any legal move; stops at the first one found.
+     */
+    public boolean hasLegalMove(PieceColor color) {
+        return GENERATOR.hasLegalMove(board.position(), color == PieceColor.WHITE, new MoveList());
+    }
+
+    /**
+     * Whether the game is over for the side to move, and why, from one legal-move
+     * existence test. Checkmate and stalemate take precedence over the draw rules;
+     * insufficient material is checked first since it rules out mate and costs
+     * nothing.
+     */
+    public GameStatus status() {
+        if (isInsufficientMaterial())
+            return GameStatus.INSUFFICIENT_MATERIAL;
+        PieceColor toMove = getActiveColor();
+        if (!hasLegalMove(toMove))
+            return isKingInCheck(toMove) ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+        if (isFiftyMoveRule())
+            return GameStatus.FIFTY_MOVE;
+        if (isThreefoldRepetition())
+            return GameStatus.REPETITION;
+        return GameStatus.ONGOING;
     }
 
     /**
@@ -263,38 +429,16 @@ public class Game {
 
     /**
      * Check if the king of the given color is in check on the provided board.
-     * A king is in check if any opponent pseudo-legal move attacks the king's
-     * square.
      */
     boolean isKingInCheck(Board boardToCheck, PieceColor color) {
-        // find king
-        int kingR = -1, kingC = -1;
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                Square s = boardToCheck.getSquare(r, c);
-                if (!s.isEmpty() && s.getPiece() instanceof King
-                        && s.getPiece().getColor() == color) {
-                    kingR = r;
-                    kingC = c;
-                    break;
-                }
-            }
-            if (kingR != -1)
-                break;
-        }
-        if (kingR == -1) {
-            // no king found; treat as not in check (could also throw)
-            return false;
-        }
+        return isKingInCheck(boardToCheck.position(), color);
+    }
 
-        // generate all opponent pseudo-legal moves
-        MoveGenerator gen = new MoveGenerator();
-        boolean forWhite = (color == PieceColor.WHITE);
-        List<Move> opponentMoves = gen.generateAllMoves(boardToCheck, !forWhite);
-        for (Move m : opponentMoves) {
-            if (m.getToRow() == kingR && m.getToCol() == kingC)
-                return true;
-        }
-        return false;
+    /**
+     * Check if the king of the given color is in check on a bitboard position by
+     * probing the tracked king square with the attack tables.
+     */
+    public static boolean isKingInCheck(BitboardPosition position, PieceColor color) {
+        return position.isInCheck(color.ordinal());
     }
 }
@@ -0,0 +1,22 @@
+package chessengine.game;
+
+/**
+ * State of a game from the point of view of the side to move, as returned by
+ * {@link Game#status()}.
+ */
+public enum GameStatus {
+    ONGOING,
+    CHECKMATE,
+    STALEMATE,
+    REPETITION,
+    FIFTY_MOVE,
+    INSUFFICIENT_MATERIAL;
+
+    public boolean isGameOver() {
+        return this != ONGOING;
+    }
+
+    public boolean isDraw() {
+        return this != ONGOING && this != CHECKMATE;
+    }
+}
@@ -0,0 +1,169 @@
+package chessengine.game;
+
+import chessengine.move.MoveList;
+import chessengine.move.Moves;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perft (performance test) over {@link Game}: counts the leaf nodes of the legal
+ * move tree to a fixed depth. The counts for the bundled reference positions are
+ * known exactly, so any mismatch points at a move generation or make/unmake bug;
+ * the time taken gives the generator throughput in nodes per second.
+ * <p>
+ * Run {@link #main(String[])} to check the whole suite, optionally passing a
+ * maximum depth.
+ */
+public class Perft {
+
+    /**
+     * A standard test position with its expected node count at the given depth.
+     */
+    public static final class Reference {
+        private final String name;
+        private final String fen;
+        private final int depth;
+        private final long nodes;
+
+        public Reference(String name, String fen, int depth, long nodes) {
+            this.name = name;
+            this.fen = fen;
+            this.depth = depth;
+            this.nodes = nodes;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getFen() {
+            return fen;
+        }
+
+        public int getDepth() {
+            return depth;
+        }
+
+        public long getNodes() {
+            return nodes;
+        }
+    }
+
+    public static final Reference[] REFERENCE_POSITIONS = {
+            new Reference("startpos",
+                    "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1", 5, 4_865_609L),
+            new Reference("kiwipete",
+                    "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1", 4, 4_085_603L),
+            new Reference("position3",
+                    "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1", 5, 674_624L),
+            new Reference("position4",
+                    "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1", 4, 422_333L),
+            new Reference("position5",
+                    "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8", 4, 2_103_487L),
+            new Reference("position6",
+                    "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10", 4, 3_894_594L),
+    };
+
+    private final Game game;
+    private MoveList[] moveLists = new MoveList[0];
+
+    public Perft(Game game) {
+        this.game = game;
+    }
+
+    /**
+     * Number of leaf nodes {@code depth} plies below the current position. The game
+     * is left exactly as it was.
+     */
+    public long perft(int depth) {
+        ensureMoveLists(depth);
+        return count(0, depth);
+    }
+
+    /**
+     * Leaf node count below each legal root move, keyed by the move in coordinate
+     * notation, in generation order. Comparing this against another engine's output
+     * narrows a wrong total down to the offending line.
+     */
+    public Map<String, Long> divide(int depth) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        if (depth < 1)
+            return result;
+        ensureMoveLists(depth);
+        MoveList moves = moveLists[0];
+        Game.legalMoves(game.getBoard().position(), game.getActiveColor(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.makeMove(move);
+            result.put(Moves.toUci(move), count(1, depth - 1));
+            game.unmakeMove();
+        }
+        return result;
+    }
+
+    private long count(int ply, int depth) {
+        if (depth == 0)
+            return 1;
+        MoveList moves = moveLists[ply];
+        Game.legalMoves(game.getBoard().position(), game.getActiveColor(), moves);
+        // the generator only emits legal moves, so the last ply needs no make/unmake
+        if (depth == 1)
+            return moves.size();
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            nodes += count(ply + 1, depth - 1);
+            game.unmakeMove();
+        }
+        return nodes;
+    }
+
+    private void ensureMoveLists(int depth) {
+        if (moveLists.length >= depth)
+            return;
+        MoveList[] grown = java.util.Arrays.copyOf(moveLists, depth);
+        for (int i = moveLists.length; i < depth; i++) {
+            grown[i] = new MoveList();
+        }
+        moveLists = grown;
+    }
+
+    /**
+     * Run the reference suite and print node counts and nodes per second. An optional
+     * argument caps the depth of every position. Exits with status 1 on a mismatch.
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        boolean ok = true;
+        long totalNodes = 0;
+        long totalNanos = 0;
+        for (Reference ref : REFERENCE_POSITIONS) {
+            int depth = Math.min(ref.getDepth(), maxDepth);
+            Perft perft = new Perft(Game.fromFen(ref.getFen()));
+            long start = System.nanoTime();
+            long nodes = perft.perft(depth);
+            long nanos = System.nanoTime() - start;
+            totalNodes += nodes;
+            totalNanos += nanos;
+            String status;
+            if (depth != ref.getDepth()) {
+                status = "(unchecked)";
+            } else if (nodes == ref.getNodes()) {
+                status = "ok";
+            } else {
+                status = "FAIL expected " + ref.getNodes();
+                ok = false;
+            }
+            System.out.printf("%-10s depth %d %,12d nodes %8.1f ms %,12d nps  %s%n",
+                    ref.getName(), depth, nodes, nanos / 1e6, nodesPerSecond(nodes, nanos), status);
+        }
+        System.out.printf("total %,d nodes in %.1f ms, %,d nps%n",
+                totalNodes, totalNanos / 1e6, nodesPerSecond(totalNodes, totalNanos));
+        if (!ok)
+            System.exit(1);
+    }
+
+    public static long nodesPerSecond(long nodes, long nanos) {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos;
+    }
+}
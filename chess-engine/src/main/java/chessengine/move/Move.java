@@ -1,5 +1,9 @@
 package chessengine.move;
 
+/**
+ * Object form of a move, used at the API boundary (server, tests). The engine
+ * itself works on the packed ints described in {@link Moves}.
+ */
 public class Move {
     private final int fromRow;
     private final int fromCol;
@@ -45,6 +49,17 @@ public class Move {
         return promotionPiece;
     }
 
+    /**
+     * Packed int form of this move, see {@link Moves}.
+     */
+    public int encode() {
+        return Moves.fromMove(this);
+    }
+
+    public static Move decode(int move) {
+        return Moves.toMove(move);
+    }
+
     @Override
     public String toString() {
         return String.format("%d,%d -> %d,%d (%s)", fromRow, fromCol, toRow, toCol, type);
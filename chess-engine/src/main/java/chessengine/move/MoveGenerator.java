@@ -1,32 +1,428 @@
 package chessengine.move;
 
+import chessengine.board.Attacks;
+import chessengine.board.BitboardPosition;
+import chessengine.board.Bitboards;
 import chessengine.board.Board;
-import chessengine.board.Square;
-import chessengine.piece.Piece;
-import java.util.ArrayList;
+import chessengine.piece.PieceType;
 import java.util.List;
 
 public class MoveGenerator {
+    /** Captures, en passant and promotions. */
+    public static final int NOISY = 1;
+    /** Everything else: non-capturing moves and castling. */
+    public static final int QUIET = 2;
+    public static final int ALL = NOISY | QUIET;
+
+    private static final PieceType[] PROMOTIONS = {
+            PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT
+    };
+    private static final PieceType[] PIECE_ORDER = {
+            PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN, PieceType.KING
+    };
+
     /**
-     * Generate all possible moves for the given side by delegating to each piece.
-     * This provides basic move generation for Pawn and King per requirements.
+     * Generate all possible moves for the given side on the board's bitboard view.
      */
     public List<Move> generateAllMoves(Board board, boolean forWhite) {
-        List<Move> result = new ArrayList<>();
-        for (int r = 0; r < Board.SIZE; r++) {
-            for (int c = 0; c < Board.SIZE; c++) {
-                Square sq = board.getSquare(r, c);
-                if (!sq.isEmpty()) {
-                    Piece p = sq.getPiece();
-                    boolean isWhitePiece = p.getColor() == chessengine.piece.PieceColor.WHITE;
-                    if ((forWhite && isWhitePiece) || (!forWhite && !isWhitePiece)) {
-                        result.addAll(p.generateLegalMoves(sq, board));
+        return generateAllMoves(board.position(), forWhite);
+    }
+
+    public List<Move> generateAllMoves(BitboardPosition pos, boolean forWhite) {
+        MoveList list = new MoveList();
+        generateAllMoves(pos, forWhite, list);
+        return list.toMoves();
+    }
+
+    /**
+     * Append all pseudo-legal moves for the given side to {@code out} as packed ints.
+     * Castling only checks rights and empty squares; attacked squares are left to the
+     * legality filter in Game.
+     */
+    public void generateAllMoves(BitboardPosition pos, boolean forWhite, MoveList out) {
+        int us = forWhite ? BitboardPosition.WHITE : BitboardPosition.BLACK;
+        long own = pos.occupancy(us);
+        long enemy = pos.occupancy(us ^ 1);
+        long occupied = own | enemy;
+
+        generatePawnMoves(pos, us, ~0L, 0L, false, ALL, out);
+        for (PieceType type : PIECE_ORDER) {
+            long pieces = pos.pieces(BitboardPosition.pieceIndex(us, type));
+            while (pieces != 0) {
+                int from = Bitboards.lsb(pieces);
+                pieces &= pieces - 1;
+                addMoves(from, attacks(type, from, occupied) & ~own, enemy, out);
+            }
+        }
+        long king = pos.pieces(BitboardPosition.pieceIndex(us, PieceType.KING));
+        if (king != 0) {
+            generateCastling(pos, us, Bitboards.lsb(king), false, out);
+        }
+    }
+
+    /**
+     * Append only the legal moves for the given side. Checkers and pinned pieces are
+     * computed once; every move is then restricted by a check mask (capture or block
+     * a single checker; king moves only in double check) and, for pinned pieces, by
+     * the pin line. En passant, which removes two pawns from a rank at once, is
+     * verified against the king on the resulting occupancy.
+     */
+    public void generateLegalMoves(BitboardPosition pos, boolean forWhite, MoveList out) {
+        generateLegal(pos, forWhite, out, false, ALL);
+    }
+
+    /**
+     * Append the legal moves of one or both kinds, {@link #NOISY} and {@link #QUIET},
+     * so a search can generate the quiet moves only if the noisy ones did not cut
+     * off.
+     */
+    public void generateLegalMoves(BitboardPosition pos, boolean forWhite, MoveList out, int stages) {
+        generateLegal(pos, forWhite, out, false, stages);
+    }
+
+    /**
+     * Append the legal captures, en-passant captures and promotions only, the move
+     * set quiescence search looks at.
+     */
+    public void generateCaptures(BitboardPosition pos, boolean forWhite, MoveList out) {
+        generateLegal(pos, forWhite, out, false, NOISY);
+    }
+
+    /**
+     * Whether the given side has at least one legal move. Runs the legal generator
+     * but stops after the first stage (king, pawns, each piece) that produces a move;
+     * {@code scratch} is cleared and used as the buffer.
+     */
+    public boolean hasLegalMove(BitboardPosition pos, boolean forWhite, MoveList scratch) {
+        scratch.clear();
+        generateLegal(pos, forWhite, scratch, true, ALL);
+        return !scratch.isEmpty();
+    }
+
+    private void generateLegal(BitboardPosition pos, boolean forWhite, MoveList out, boolean firstOnly,
+            int stages) {
+        int start = out.size();
+        int us = forWhite ? BitboardPosition.WHITE : BitboardPosition.BLACK;
+        int them = us ^ 1;
+        int king = pos.kingSquare(us);
+        long own = pos.occupancy(us);
+        long enemy = pos.occupancy(them);
+        long occupied = own | enemy;
+        // squares a piece move may land on in the requested stages
+        long stageTargets = ((stages & NOISY) != 0 ? enemy : 0) | ((stages & QUIET) != 0 ? ~occupied : 0);
+        if (king == BitboardPosition.NO_SQUARE) {
+            // nothing to keep safe: every pseudo-legal move is legal
+            generatePawnMoves(pos, us, ~0L, 0L, false, stages, out);
+            for (PieceType type : PIECE_ORDER) {
+                long pieces = pos.pieces(BitboardPosition.pieceIndex(us, type));
+                while (pieces != 0) {
+                    int from = Bitboards.lsb(pieces);
+                    pieces &= pieces - 1;
+                    addMoves(from, attacks(type, from, occupied) & stageTargets, enemy, out);
+                }
+            }
+            return;
+        }
+        long checkers = pos.attackersTo(king, them, occupied);
+
+        // the king may not step onto an attacked square; take it off the board first so
+        // it cannot hide behind itself from a slider
+        long kingless = occupied ^ Bitboards.bit(king);
+        long targets = Attacks.king(king) & stageTargets;
+        while (targets != 0) {
+            int to = Bitboards.lsb(targets);
+            targets &= targets - 1;
+            if (pos.attackersTo(to, them, kingless) == 0) {
+                out.add(Moves.encode(king, to, (enemy & Bitboards.bit(to)) != 0 ? Moves.CAPTURE : Moves.NORMAL));
+            }
+        }
+        if (Long.bitCount(checkers) > 1 || (firstOnly && out.size() > start))
+            return;
+
+        long checkMask = ~0L;
+        if (checkers != 0) {
+            checkMask = checkers | Attacks.between(king, Bitboards.lsb(checkers));
+        }
+        long pinned = pinnedPieces(pos, us, king, own, occupied);
+
+        generatePawnMoves(pos, us, checkMask, pinned, true, stages, out);
+        for (PieceType type : PIECE_ORDER) {
+            if (firstOnly && out.size() > start)
+                return;
+            if (type == PieceType.KING)
+                continue;
+            long pieces = pos.pieces(BitboardPosition.pieceIndex(us, type));
+            while (pieces != 0) {
+                int from = Bitboards.lsb(pieces);
+                pieces &= pieces - 1;
+                long allowed = attacks(type, from, occupied) & stageTargets & checkMask;
+                if ((pinned & Bitboards.bit(from)) != 0) {
+                    allowed &= Attacks.line(king, from);
+                }
+                addMoves(from, allowed, enemy, out);
+            }
+        }
+        if (checkers == 0 && (stages & QUIET) != 0) {
+            generateCastling(pos, us, king, true, out);
+        }
+    }
+
+    /**
+     * Whether a packed move is legal for the side to move, checked on its own: the
+     * piece's movement pattern and move type, blockers on its path, and king
+     * safety through the same check and pin masks the legal generator uses. The
+     * position is not modified.
+     */
+    public boolean isLegal(BitboardPosition pos, int move) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int type = Moves.type(move);
+        int us = pos.isWhiteToMove() ? BitboardPosition.WHITE : BitboardPosition.BLACK;
+        int them = us ^ 1;
+        int piece = pos.pieceAt(from);
+        if (piece == BitboardPosition.NO_PIECE || BitboardPosition.colorOf(piece) != us || from == to)
+            return false;
+        long own = pos.occupancy(us);
+        long enemy = pos.occupancy(them);
+        long occupied = own | enemy;
+        long toBit = Bitboards.bit(to);
+        if ((own & toBit) != 0)
+            return false;
+        boolean capture = (enemy & toBit) != 0;
+        PieceType pieceType = BitboardPosition.typeOf(piece);
+        int king = pos.kingSquare(us);
+
+        if (pieceType == PieceType.KING) {
+            if (type == Moves.CASTLING) {
+                return Math.abs(to - from) == 2 && pos.attackersTo(from, them, occupied) == 0
+                        && canCastle(pos, us, from, to > from, true);
+            }
+            return type == (capture ? Moves.CAPTURE : Moves.NORMAL) && (Attacks.king(from) & toBit) != 0
+                    && pos.attackersTo(to, them, occupied ^ Bitboards.bit(from)) == 0;
+        }
+
+        if (pieceType == PieceType.PAWN) {
+            if (!isPawnMove(pos, us, move, capture, occupied))
+                return false;
+        } else if (type != (capture ? Moves.CAPTURE : Moves.NORMAL)
+                || (attacks(pieceType, from, occupied) & toBit) == 0) {
+            return false;
+        }
+        if (king == BitboardPosition.NO_SQUARE)
+            return true;
+
+        long checkers = pos.attackersTo(king, them, occupied);
+        if (Long.bitCount(checkers) > 1)
+            return false;
+        long checkMask = checkers == 0 ? ~0L : checkers | Attacks.between(king, Bitboards.lsb(checkers));
+        if (type == Moves.EN_PASSANT)
+            return isLegalEnPassant(pos, us, from, to, BitboardPosition.enPassantVictim(from, to), checkMask);
+        if ((checkMask & toBit) == 0)
+            return false;
+        // a pinned piece may only move along the line through its king
+        return (pinnedPieces(pos, us, king, own, occupied) & Bitboards.bit(from)) == 0
+                || (Attacks.line(king, from) & toBit) != 0;
+    }
+
+    private boolean isPawnMove(BitboardPosition pos, int us, int move, boolean capture, long occupied) {
+        int from = Moves.from(move);
+        int to = Moves.to(move);
+        int type = Moves.type(move);
+        int forward = us == BitboardPosition.WHITE ? 8 : -8;
+        long lastRank = us == BitboardPosition.WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        long startRank = us == BitboardPosition.WHITE ? Bitboards.RANK_2 : Bitboards.RANK_7;
+        long toBit = Bitboards.bit(to);
+        boolean promotes = (lastRank & toBit) != 0;
+        if (type == Moves.EN_PASSANT) {
+            int victim = BitboardPosition.enPassantVictim(from, to);
+            return to == pos.getEnPassantSquare() && (Attacks.pawn(us, from) & toBit) != 0
+                    && pos.pieceAt(victim) == BitboardPosition.pieceIndex(us ^ 1, PieceType.PAWN);
+        }
+        if (promotes != (type == Moves.PROMOTION))
+            return false;
+        if (promotes) {
+            int promo = Moves.promotion(move);
+            if (promo < PieceType.QUEEN.ordinal() || promo > PieceType.KNIGHT.ordinal())
+                return false;
+        }
+        if (capture)
+            return (type == Moves.CAPTURE || promotes) && (Attacks.pawn(us, from) & toBit) != 0;
+        if (type != Moves.NORMAL && !promotes)
+            return false;
+        if (to == from + forward)
+            return true;
+        return to == from + 2 * forward && (startRank & Bitboards.bit(from)) != 0
+                && (occupied & Bitboards.bit(from + forward)) == 0;
+    }
+
+    /**
+     * Own pieces that are the only blocker between our king and an enemy slider.
+     */
+    private long pinnedPieces(BitboardPosition pos, int us, int king, long own, long occupied) {
+        int them = us ^ 1;
+        long enemy = pos.occupancy(them);
+        long queens = pos.pieces(BitboardPosition.pieceIndex(them, PieceType.QUEEN));
+        long snipers = (Attacks.rook(king, enemy) & (pos.pieces(BitboardPosition.pieceIndex(them, PieceType.ROOK)) | queens))
+                | (Attacks.bishop(king, enemy) & (pos.pieces(BitboardPosition.pieceIndex(them, PieceType.BISHOP)) | queens));
+        long pinned = 0;
+        while (snipers != 0) {
+            int sniper = Bitboards.lsb(snipers);
+            snipers &= snipers - 1;
+            long blockers = Attacks.between(king, sniper) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Pawn pushes, captures, promotions and en passant. Targets are limited to
+     * {@code checkMask}, and pinned pawns to their pin line; with {@code legal} set,
+     * en passant is also checked for uncovering a slider on the king. Promotions,
+     * captures and en passant belong to the noisy stage, other pushes to the quiet one.
+     */
+    private void generatePawnMoves(BitboardPosition pos, int us, long checkMask, long pinned, boolean legal,
+            int stages, MoveList out) {
+        boolean noisy = (stages & NOISY) != 0;
+        boolean quiet = (stages & QUIET) != 0;
+        int them = us ^ 1;
+        long enemy = pos.occupancy(them);
+        long occupied = pos.occupied();
+        int king = pos.kingSquare(us);
+        // ranks grow towards Black
+        int forward = us == BitboardPosition.WHITE ? 8 : -8;
+        long startRank = us == BitboardPosition.WHITE ? Bitboards.RANK_2 : Bitboards.RANK_7;
+        long lastRank = us == BitboardPosition.WHITE ? Bitboards.RANK_8 : Bitboards.RANK_1;
+        int ep = pos.getEnPassantSquare();
+        long pawns = pos.pieces(BitboardPosition.pieceIndex(us, PieceType.PAWN));
+        while (pawns != 0) {
+            int from = Bitboards.lsb(pawns);
+            pawns &= pawns - 1;
+            int to = from + forward;
+            if (to < 0 || to >= 64)
+                continue;
+            boolean promotes = (lastRank & Bitboards.bit(to)) != 0;
+            long allowed = checkMask;
+            if ((pinned & Bitboards.bit(from)) != 0) {
+                allowed &= Attacks.line(king, from);
+            }
+
+            if ((occupied & Bitboards.bit(to)) == 0) {
+                if ((allowed & Bitboards.bit(to)) != 0) {
+                    if (promotes) {
+                        if (noisy)
+                            addPromotions(from, to, out);
+                    } else if (quiet) {
+                        out.add(Moves.encode(from, to, Moves.NORMAL));
                     }
                 }
+                int to2 = to + forward;
+                if (quiet && !promotes && (startRank & Bitboards.bit(from)) != 0 && (occupied & Bitboards.bit(to2)) == 0
+                        && (allowed & Bitboards.bit(to2)) != 0) {
+                    out.add(Moves.encode(from, to2, Moves.NORMAL));
+                }
+            }
+
+            if (!noisy)
+                continue;
+            long captures = Attacks.pawn(us, from) & enemy & allowed;
+            while (captures != 0) {
+                int target = Bitboards.lsb(captures);
+                captures &= captures - 1;
+                if (promotes) {
+                    addPromotions(from, target, out);
+                } else {
+                    out.add(Moves.encode(from, target, Moves.CAPTURE));
+                }
+            }
+            if (ep != BitboardPosition.NO_SQUARE && (Attacks.pawn(us, from) & Bitboards.bit(ep)) != 0) {
+                // the pawn that just double-stepped sits beside us on the same rank
+                int victim = ep - forward;
+                if (pos.pieceAt(victim) == BitboardPosition.pieceIndex(them, PieceType.PAWN)
+                        && (!legal || isLegalEnPassant(pos, us, from, ep, victim, checkMask))) {
+                    out.add(Moves.encode(from, ep, Moves.EN_PASSANT));
+                }
             }
         }
-        return result;
     }
-}
 
+    private boolean isLegalEnPassant(BitboardPosition pos, int us, int from, int ep, int victim, long checkMask) {
+        // must capture the checker or block its line
+        if ((checkMask & (Bitboards.bit(ep) | Bitboards.bit(victim))) == 0)
+            return false;
+        int king = pos.kingSquare(us);
+        int them = us ^ 1;
+        long after = (pos.occupied() ^ Bitboards.bit(from) ^ Bitboards.bit(victim)) | Bitboards.bit(ep);
+        long queens = pos.pieces(BitboardPosition.pieceIndex(them, PieceType.QUEEN));
+        long rooks = pos.pieces(BitboardPosition.pieceIndex(them, PieceType.ROOK)) | queens;
+        long bishops = pos.pieces(BitboardPosition.pieceIndex(them, PieceType.BISHOP)) | queens;
+        return (Attacks.rook(king, after) & rooks) == 0 && (Attacks.bishop(king, after) & bishops) == 0;
+    }
+
+    private void addPromotions(int from, int to, MoveList out) {
+        for (PieceType pt : PROMOTIONS) {
+            out.add(Moves.encode(from, to, Moves.PROMOTION, pt));
+        }
+    }
+
+    /**
+     * Attack set of a non-pawn piece on {@code from} given the board occupancy.
+     */
+    public static long attacks(PieceType type, int from, long occupied) {
+        return switch (type) {
+            case KNIGHT -> Attacks.knight(from);
+            case BISHOP -> Attacks.bishop(from, occupied);
+            case ROOK -> Attacks.rook(from, occupied);
+            case QUEEN -> Attacks.queen(from, occupied);
+            case KING -> Attacks.king(from);
+            case PAWN -> throw new IllegalArgumentException("pawn attacks depend on colour");
+        };
+    }
+
+    /**
+     * Append one NORMAL or CAPTURE move from {@code from} to each square in {@code targets}.
+     */
+    public static void addMoves(int from, long targets, long enemy, MoveList out) {
+        while (targets != 0) {
+            int to = Bitboards.lsb(targets);
+            targets &= targets - 1;
+            out.add(Moves.encode(from, to, (enemy & Bitboards.bit(to)) != 0 ? Moves.CAPTURE : Moves.NORMAL));
+        }
+    }
+
+    /**
+     * Castling moves allowed by the rights and an empty path. With {@code safe} set the
+     * king's pass-through and destination squares must also be unattacked (the caller
+     * has already ruled out check).
+     */
+    private void generateCastling(BitboardPosition pos, int us, int kingSq, boolean safe, MoveList out) {
+        if (canCastle(pos, us, kingSq, true, safe))
+            out.add(Moves.encode(kingSq, kingSq + 2, Moves.CASTLING));
+        if (canCastle(pos, us, kingSq, false, safe))
+            out.add(Moves.encode(kingSq, kingSq - 2, Moves.CASTLING));
+    }
 
+    /**
+     * Whether the king on {@code kingSq} may castle to one side, checked straight from
+     * the rights, the rook on its home square and the occupancy, as for
+     * {@link #generateCastling}.
+     */
+    private boolean canCastle(BitboardPosition pos, int us, int kingSq, boolean kingSide, boolean safe) {
+        if (kingSq != (us == BitboardPosition.WHITE ? 4 : 60))
+            return false;
+        int right = us == BitboardPosition.WHITE
+                ? (kingSide ? BitboardPosition.WHITE_KINGSIDE : BitboardPosition.WHITE_QUEENSIDE)
+                : (kingSide ? BitboardPosition.BLACK_KINGSIDE : BitboardPosition.BLACK_QUEENSIDE);
+        if ((pos.getCastlingRights() & right) == 0
+                || pos.pieceAt(kingSide ? kingSq + 3 : kingSq - 4) != BitboardPosition.pieceIndex(us, PieceType.ROOK))
+            return false;
+        // squares between king and rook must be empty: f,g for short; b,c,d for long
+        long between = kingSide ? 0x3L << (kingSq + 1) : 0x7L << (kingSq - 3);
+        if ((pos.occupied() & between) != 0)
+            return false;
+        int step = kingSide ? 1 : -1;
+        int them = us ^ 1;
+        return !safe || (!pos.isSquareAttacked(kingSq + step, them) && !pos.isSquareAttacked(kingSq + 2 * step, them));
+    }
+}
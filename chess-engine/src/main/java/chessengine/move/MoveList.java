@@ -0,0 +1,67 @@
+package chessengine.move;
+
+/**
+ * Reusable list of packed moves (see {@link Moves}) backed by an int array.
+ * Generators append into it; callers keep one per search ply and {@link #clear()}
+ * it instead of allocating.
+ */
+public final class MoveList {
+    // no legal chess position has more than 218 moves
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private int size;
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void set(int index, int move) {
+        moves[index] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Shrink the list to its first {@code newSize} entries.
+     */
+    public void truncate(int newSize) {
+        size = newSize;
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) {
+            if (moves[i] == move)
+                return true;
+        }
+        return false;
+    }
+
+    public void swap(int i, int j) {
+        int t = moves[i];
+        moves[i] = moves[j];
+        moves[j] = t;
+    }
+
+    public java.util.List<Move> toMoves() {
+        java.util.List<Move> result = new java.util.ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            result.add(Moves.toMove(moves[i]));
+        }
+        return result;
+    }
+}
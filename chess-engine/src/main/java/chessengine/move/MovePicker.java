@@ -0,0 +1,250 @@
+package chessengine.move;
+
+import chessengine.board.BitboardPosition;
+import chessengine.piece.PieceType;
+
+/**
+ * Hands out the legal moves of a position one at a time in search order, doing the
+ * generation in stages: the hash move, winning captures, promotions, killer moves,
+ * quiet moves and finally losing captures. Each stage is generated only when the
+ * previous ones are used up, so a beta cutoff on an early move skips the rest of
+ * the work. Captures are tried most valuable victim / least valuable attacker
+ * first, quiet moves by their butterfly history score when the picker was given a
+ * history table.
+ * <p>
+ * A picker owns its buffers and is meant to be kept per search ply and reused with
+ * {@link #init}, or {@link #initNoisy} for quiescence search.
+ */
+public final class MovePicker {
+    private static final int HASH = 0;
+    private static final int GENERATE_NOISY = 1;
+    private static final int GOOD_CAPTURES = 2;
+    private static final int PROMOTIONS = 3;
+    private static final int KILLER_1 = 4;
+    private static final int KILLER_2 = 5;
+    private static final int GENERATE_QUIETS = 6;
+    private static final int QUIETS = 7;
+    private static final int BAD_CAPTURES = 8;
+    private static final int DONE = 9;
+
+    // indexed by PieceType ordinal: KING, QUEEN, ROOK, BISHOP, KNIGHT, PAWN
+    private static final int[] VALUES = { 2000, 900, 500, 330, 320, 100 };
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private final MoveList captures = new MoveList();
+    private final int[] captureScores = new int[MoveList.CAPACITY];
+    private final MoveList promotions = new MoveList();
+    private final MoveList badCaptures = new MoveList();
+    private final MoveList quiets = new MoveList();
+    private final int[] quietScores = new int[MoveList.CAPACITY];
+    // butterfly history indexed by side * 4096 + from * 64 + to, or null
+    private final int[] history;
+
+    private BitboardPosition pos;
+    private boolean white;
+    private int hashMove;
+    private int killer1;
+    private int killer2;
+    private boolean noisyOnly;
+    private int stage;
+    private int index;
+
+    /**
+     * A picker returning quiet moves in generation order.
+     */
+    public MovePicker() {
+        this(null);
+    }
+
+    /**
+     * A picker ordering quiet moves by {@code history}, a butterfly table indexed by
+     * {@link #historyIndex}. The array is read, never written, so a search may
+     * share one table between all of its pickers and update it on cutoffs.
+     */
+    public MovePicker(int[] history) {
+        this.history = history;
+    }
+
+    /**
+     * Butterfly table index of a move by the given side (0 white, 1 black).
+     */
+    public static int historyIndex(int side, int move) {
+        return side << 12 | (move & 0xFFF);
+    }
+
+    /**
+     * Start picking moves for the side to move. {@code hashMove} and the killers may
+     * be {@link Moves#NONE} or moves from other positions; they are checked for
+     * legality here before being returned.
+     */
+    public void init(BitboardPosition pos, int hashMove, int killer1, int killer2) {
+        this.pos = pos;
+        this.white = pos.isWhiteToMove();
+        this.hashMove = hashMove != Moves.NONE && generator.isLegal(pos, hashMove) ? hashMove : Moves.NONE;
+        this.killer1 = isQuiet(killer1) && killer1 != this.hashMove && generator.isLegal(pos, killer1) ? killer1
+                : Moves.NONE;
+        this.killer2 = isQuiet(killer2) && killer2 != this.hashMove && killer2 != this.killer1
+                && generator.isLegal(pos, killer2) ? killer2 : Moves.NONE;
+        noisyOnly = false;
+        stage = HASH;
+        index = 0;
+    }
+
+    /**
+     * Start picking only the winning captures and promotions of the side to move,
+     * for quiescence search. Losing captures and quiet moves are never returned.
+     */
+    public void initNoisy(BitboardPosition pos) {
+        this.pos = pos;
+        this.white = pos.isWhiteToMove();
+        hashMove = killer1 = killer2 = Moves.NONE;
+        noisyOnly = true;
+        stage = GENERATE_NOISY;
+        index = 0;
+    }
+
+    /**
+     * The next move to search, or {@link Moves#NONE} when all legal moves have been
+     * returned. Each legal move is returned exactly once.
+     */
+    public int next() {
+        while (true) {
+            switch (stage) {
+                case HASH -> {
+                    stage = GENERATE_NOISY;
+                    if (hashMove != Moves.NONE)
+                        return hashMove;
+                }
+                case GENERATE_NOISY -> {
+                    splitNoisy();
+                    index = 0;
+                    stage = GOOD_CAPTURES;
+                }
+                case GOOD_CAPTURES -> {
+                    if (index < captures.size())
+                        return pickBest(captures, captureScores);
+                    index = 0;
+                    stage = PROMOTIONS;
+                }
+                case PROMOTIONS -> {
+                    while (index < promotions.size()) {
+                        int move = promotions.get(index++);
+                        if (move != hashMove)
+                            return move;
+                    }
+                    stage = noisyOnly ? DONE : KILLER_1;
+                }
+                case KILLER_1 -> {
+                    stage = KILLER_2;
+                    if (killer1 != Moves.NONE)
+                        return killer1;
+                }
+                case KILLER_2 -> {
+                    stage = GENERATE_QUIETS;
+                    if (killer2 != Moves.NONE)
+                        return killer2;
+                }
+                case GENERATE_QUIETS -> {
+                    generateQuiets();
+                    index = 0;
+                    stage = QUIETS;
+                }
+                case QUIETS -> {
+                    if (index < quiets.size())
+                        return history == null ? quiets.get(index++) : pickBest(quiets, quietScores);
+                    index = 0;
+                    stage = BAD_CAPTURES;
+                }
+                case BAD_CAPTURES -> {
+                    while (index < badCaptures.size()) {
+                        int move = badCaptures.get(index++);
+                        if (move != hashMove)
+                            return move;
+                    }
+                    stage = DONE;
+                }
+                default -> {
+                    return Moves.NONE;
+                }
+            }
+        }
+    }
+
+    /**
+     * Generate the noisy moves and sort them into winning captures (with their
+     * MVV-LVA scores), promotions and losing captures. A capture counts as losing
+     * when the victim is worth less than the attacker and the square is defended.
+     */
+    private void splitNoisy() {
+        captures.clear();
+        promotions.clear();
+        badCaptures.clear();
+        generator.generateCaptures(pos, white, captures);
+        int them = white ? BitboardPosition.BLACK : BitboardPosition.WHITE;
+        int kept = 0;
+        for (int i = 0; i < captures.size(); i++) {
+            int move = captures.get(i);
+            if (move == hashMove)
+                continue;
+            if (Moves.type(move) == Moves.PROMOTION) {
+                promotions.add(move);
+                continue;
+            }
+            int to = Moves.to(move);
+            int victim = Moves.type(move) == Moves.EN_PASSANT ? VALUES[PieceType.PAWN.ordinal()]
+                    : VALUES[pos.pieceAt(to) % 6];
+            int attacker = VALUES[pos.pieceAt(Moves.from(move)) % 6];
+            if (victim < attacker && pos.isSquareAttacked(to, them)) {
+                badCaptures.add(move);
+            } else {
+                captureScores[kept] = victim * 16 - attacker / 100;
+                captures.set(kept++, move);
+            }
+        }
+        captures.truncate(kept);
+    }
+
+    /**
+     * Generate the quiet moves other than the hash move and killers, scoring each
+     * by history.
+     */
+    private void generateQuiets() {
+        quiets.clear();
+        generator.generateLegalMoves(pos, white, quiets, MoveGenerator.QUIET);
+        int side = white ? BitboardPosition.WHITE : BitboardPosition.BLACK;
+        int kept = 0;
+        for (int i = 0; i < quiets.size(); i++) {
+            int move = quiets.get(i);
+            if (move == hashMove || move == killer1 || move == killer2)
+                continue;
+            if (history != null)
+                quietScores[kept] = history[historyIndex(side, move)];
+            quiets.set(kept++, move);
+        }
+        quiets.truncate(kept);
+    }
+
+    /**
+     * Selection step: swap the best remaining move to the front of the unsearched
+     * part and return it. Cheaper than sorting when a cutoff comes early.
+     */
+    private int pickBest(MoveList moves, int[] scores) {
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (scores[i] > scores[best])
+                best = i;
+        }
+        moves.swap(index, best);
+        int score = scores[index];
+        scores[index] = scores[best];
+        scores[best] = score;
+        return moves.get(index++);
+    }
+
+    private static boolean isQuiet(int move) {
+        if (move == Moves.NONE)
+            return false;
+        int type = Moves.type(move);
+        return type == Moves.NORMAL || type == Moves.CASTLING;
+    }
+}
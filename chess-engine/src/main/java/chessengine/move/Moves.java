@@ -0,0 +1,91 @@
+package chessengine.move;
+
+import chessengine.board.Bitboards;
+import chessengine.piece.PieceType;
+
+/**
+ * Packed int move encoding used by the generator, make/unmake and search.
+ * Bits 0-5 hold the from square, 6-11 the to square ({@link Bitboards} indices),
+ * 12-14 the {@link MoveType} ordinal and 15-17 the promotion piece
+ * ({@code PieceType.ordinal() + 1}, 0 for none). {@link #NONE} is never a real move.
+ */
+public final class Moves {
+    public static final int NONE = 0;
+
+    public static final int NORMAL = 0;
+    public static final int CAPTURE = 1;
+    public static final int CASTLING = 2;
+    public static final int EN_PASSANT = 3;
+    public static final int PROMOTION = 4;
+
+    private static final MoveType[] TYPES = MoveType.values();
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    private Moves() {
+    }
+
+    public static int encode(int from, int to, int type) {
+        return from | to << 6 | type << 12;
+    }
+
+    public static int encode(int from, int to, int type, PieceType promotion) {
+        return from | to << 6 | type << 12 | (promotion == null ? 0 : (promotion.ordinal() + 1) << 15);
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int type(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    /**
+     * Promotion piece as a PieceType ordinal, or -1 for none.
+     */
+    public static int promotion(int move) {
+        return ((move >>> 15) & 7) - 1;
+    }
+
+    public static PieceType promotionType(int move) {
+        int p = promotion(move);
+        return p < 0 ? null : PIECE_TYPES[p];
+    }
+
+    public static Move toMove(int move) {
+        int from = from(move);
+        int to = to(move);
+        return new Move(Bitboards.row(from), Bitboards.col(from), Bitboards.row(to), Bitboards.col(to),
+                TYPES[type(move)], promotionType(move));
+    }
+
+    public static int fromMove(Move move) {
+        return encode(Bitboards.square(move.getFromRow(), move.getFromCol()),
+                Bitboards.square(move.getToRow(), move.getToCol()),
+                move.getType().ordinal(), move.getPromotionPiece());
+    }
+
+    public static String toString(int move) {
+        return toMove(move).toString();
+    }
+
+    /**
+     * Coordinate notation as used by UCI, e.g. {@code e2e4} or {@code e7e8q}.
+     */
+    public static String toUci(int move) {
+        int from = from(move);
+        int to = to(move);
+        StringBuilder sb = new StringBuilder(5)
+                .append((char) ('a' + (from & 7))).append((char) ('1' + (from >>> 3)))
+                .append((char) ('a' + (to & 7))).append((char) ('1' + (to >>> 3)));
+        if (type(move) == PROMOTION) {
+            PieceType promo = promotionType(move);
+            sb.append(promo == null ? 'q' : "qrbn".charAt(promo.ordinal() - PieceType.QUEEN.ordinal()));
+        }
+        return sb.toString();
+    }
+}
@@ -3,12 +3,10 @@ package chessengine.piece;
 import chessengine.board.Board;
 import chessengine.board.Square;
 import chessengine.move.Move;
-import chessengine.move.MoveType;
-import java.util.ArrayList;
 import java.util.List;
 
 public class Knight extends Piece {
-    public Knight(PieceColor color) {
+    Knight(PieceColor color) {
         super(color);
     }
 
@@ -19,36 +17,11 @@ public class Knight extends Piece {
 
     @Override
     public List<Move> generateLegalMoves(Square from, Board board) {
-        List<Move> moves = new ArrayList<>();
-        int r = from.getRow();
-        int c = from.getCol();
-        int[][] deltas = {
-                { 2, 1 }, { 2, -1 }, { -2, 1 }, { -2, -1 },
-                { 1, 2 }, { 1, -2 }, { -1, 2 }, { -1, -2 }
-        };
-        for (int[] d : deltas) {
-            int nr = r + d[0], nc = c + d[1];
-            if (nr < 0 || nr >= Board.SIZE || nc < 0 || nc >= Board.SIZE)
-                continue;
-            Square dest = board.getSquare(nr, nc);
-            if (dest.isEmpty()) {
-                moves.add(new Move(r, c, nr, nc, MoveType.NORMAL));
-            } else if (dest.getPiece().getColor() != this.color) {
-                moves.add(new Move(r, c, nr, nc, MoveType.CAPTURE));
-            }
-        }
-        return moves;
+        return attackMoves(from, board);
     }
 
     @Override
     public String getName() {
         return "Knight";
     }
-
-    @Override
-    public Piece copy() {
-        Knight k = new Knight(this.color);
-        k.setHasMoved(this.hasMoved);
-        return k;
-    }
 }
@@ -8,7 +8,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class Pawn extends Piece {
-    public Pawn(PieceColor color) {
+    Pawn(PieceColor color) {
         super(color);
     }
 
@@ -99,11 +99,4 @@ public class Pawn extends Piece {
     public String getName() {
         return "Pawn";
     }
-
-    @Override
-    public Piece copy() {
-        Pawn p = new Pawn(this.color);
-        p.setHasMoved(this.hasMoved);
-        return p;
-    }
 }
@@ -1,18 +1,41 @@
 package chessengine.piece;
 
+import chessengine.board.BitboardPosition;
+import chessengine.board.Bitboards;
 import chessengine.board.Board;
 import chessengine.board.Square;
 import chessengine.move.Move;
+import chessengine.move.MoveGenerator;
+import chessengine.move.MoveList;
 import java.util.List;
 
+/**
+ * A chess piece. Pieces are immutable and there is exactly one instance per colour
+ * and type, obtained with {@link #of(PieceColor, PieceType)}; boards share them
+ * freely. Whether a king or rook may still castle is part of the board state
+ * (its castling rights), not of the piece.
+ */
 public abstract class Piece {
+    private static final Piece[] INSTANCES = {
+            new King(PieceColor.WHITE), new Queen(PieceColor.WHITE), new Rook(PieceColor.WHITE),
+            new Bishop(PieceColor.WHITE), new Knight(PieceColor.WHITE), new Pawn(PieceColor.WHITE),
+            new King(PieceColor.BLACK), new Queen(PieceColor.BLACK), new Rook(PieceColor.BLACK),
+            new Bishop(PieceColor.BLACK), new Knight(PieceColor.BLACK), new Pawn(PieceColor.BLACK),
+    };
+
     protected final PieceColor color;
-    protected boolean hasMoved = false;
 
-    public Piece(PieceColor color) {
+    Piece(PieceColor color) {
         this.color = color;
     }
 
+    /**
+     * The shared instance for a colour and type.
+     */
+    public static Piece of(PieceColor color, PieceType type) {
+        return INSTANCES[color.ordinal() * 6 + type.ordinal()];
+    }
+
     public PieceColor getColor() {
         return color;
     }
@@ -27,21 +50,21 @@ public abstract class Piece {
     public abstract List<Move> generateLegalMoves(Square from, Board board);
 
     /**
-     * Human-readable name of the piece (e.g., "King", "Pawn").
+     * Moves to every square this piece attacks from {@code from} that is not
+     * occupied by a friendly piece, read from the precomputed attack tables.
      */
-    public abstract String getName();
-
-    public boolean hasMoved() {
-        return hasMoved;
-    }
-
-    public void setHasMoved(boolean moved) {
-        this.hasMoved = moved;
+    protected List<Move> attackMoves(Square from, Board board) {
+        BitboardPosition pos = board.position();
+        int sq = Bitboards.square(from.getRow(), from.getCol());
+        long own = pos.occupancy(color);
+        long occupied = pos.occupied();
+        MoveList moves = new MoveList();
+        MoveGenerator.addMoves(sq, MoveGenerator.attacks(getType(), sq, occupied) & ~own, occupied & ~own, moves);
+        return moves.toMoves();
     }
 
     /**
-     * Create a copy of this piece (used by Board.copy() to avoid mutating
-     * originals).
+     * Human-readable name of the piece (e.g., "King", "Pawn").
      */
-    public abstract Piece copy();
+    public abstract String getName();
 }
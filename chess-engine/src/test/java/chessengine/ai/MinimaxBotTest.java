@@ -0,0 +1,89 @@
+package chessengine.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import chessengine.game.Game;
+import chessengine.game.Perft;
+import chessengine.move.Move;
+import chessengine.piece.PieceColor;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MinimaxBotTest {
+    // generous slack for a loaded test machine; a search that ignores the hard
+    // limit runs to depth 32 and takes far longer
+    private static final long DEADLINE_SLACK_MS = 750;
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2 })
+    void searchStopsByHardDeadline(int threads) {
+        Game game = Game.fromFen(Perft.REFERENCE_POSITIONS[1].getFen());
+        MinimaxBot bot = new MinimaxBot(PieceColor.WHITE, MinimaxBot.MAX_DEPTH);
+        long hard = 200;
+        long start = System.nanoTime();
+        Move move = bot.findBestMove(game, hard, hard, threads);
+        long elapsed = (System.nanoTime() - start) / 1_000_000;
+        assertNotNull(move);
+        assertTrue(elapsed < hard + DEADLINE_SLACK_MS, "searched for " + elapsed + " ms");
+        assertTrue(bot.getCompletedDepth() < MinimaxBot.MAX_DEPTH);
+    }
+
+    @Test
+    void findsMateInTwo() {
+        // 1. Kb6 Kb8 2. Rh8#; Rh8+ at once lets the king out to b7
+        Game game = Game.fromFen("k7/8/2K5/8/8/8/8/7R w - - 0 1");
+        MinimaxBot bot = new MinimaxBot(PieceColor.WHITE, 5);
+        Move move = bot.findBestMove(game);
+        assertNotNull(move);
+        assertEquals(2, MinimaxBot.mateDistance(bot.getScore()));
+        assertTrue(game.isLegal(move));
+    }
+
+    @Test
+    void seesItselfMatedInOne() {
+        // 1... Kb8 2. Rh8#
+        Game game = Game.fromFen("k7/8/1K6/8/8/8/8/7R b - - 0 1");
+        MinimaxBot bot = new MinimaxBot(PieceColor.BLACK, 4);
+        assertNotNull(bot.findBestMove(game));
+        assertEquals(-1, MinimaxBot.mateDistance(bot.getScore()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "k7/1Q6/1K6/8/8/8/8/8 b - - 0 1", // checkmated
+            "k7/2Q5/1K6/8/8/8/8/8 b - - 0 1", // stalemated
+    })
+    void noMoveWithoutLegalMoves(String fen) {
+        MinimaxBot bot = new MinimaxBot(PieceColor.BLACK, 3);
+        assertNull(bot.findBestMove(Game.fromFen(fen)));
+    }
+
+    @Test
+    void noMoveWhenNotItsTurn() {
+        MinimaxBot bot = new MinimaxBot(PieceColor.BLACK, 3);
+        assertNull(bot.findBestMove(new Game()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2, 3 })
+    void principalVariationStartsWithReturnedMove(int index) {
+        Game game = Game.fromFen(Perft.REFERENCE_POSITIONS[index].getFen());
+        MinimaxBot bot = new MinimaxBot(game.getActiveColor(), 4);
+        Move move = bot.findBestMove(game);
+        List<Move> pv = bot.getPrincipalVariation();
+        assertNotNull(move);
+        assertTrue(!pv.isEmpty());
+        assertEquals(move, pv.get(0));
+        // every move of the line is legal in turn
+        Game line = game.copy();
+        for (Move m : pv) {
+            assertTrue(line.isLegal(m), m.toString());
+            line.applyValidatedMove(m);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package chessengine.ai;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import chessengine.move.Moves;
+import java.lang.reflect.Field;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TranspositionTableTest {
+    private static final long KEY = 0x1234_5678L;
+    private static final int MOVE = Moves.encode(12, 28, Moves.NORMAL);
+
+    private final TranspositionTable table = new TranspositionTable(1);
+
+    /** Keys differing only above bit 48 land in the same bucket of a 1 MB table. */
+    private static long sameBucket(int n) {
+        return KEY | (long) n << 48;
+    }
+
+    @Test
+    void storeThenProbeReturnsEachField() {
+        table.store(KEY, 7, TranspositionTable.LOWER, -123, MOVE);
+        long entry = table.probe(KEY);
+        assertEquals(7, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.LOWER, TranspositionTable.bound(entry));
+        assertEquals(-123, TranspositionTable.score(entry));
+        assertEquals(MOVE, TranspositionTable.move(entry));
+        assertEquals(0, table.probe(KEY + 1));
+    }
+
+    @Test
+    void storeWithoutMoveKeepsStoredMove() {
+        table.store(KEY, 7, TranspositionTable.LOWER, 50, MOVE);
+        table.store(KEY, 3, TranspositionTable.UPPER, -20, Moves.NONE);
+        long entry = table.probe(KEY);
+        assertEquals(3, TranspositionTable.depth(entry));
+        assertEquals(TranspositionTable.UPPER, TranspositionTable.bound(entry));
+        assertEquals(-20, TranspositionTable.score(entry));
+        assertEquals(MOVE, TranspositionTable.move(entry));
+    }
+
+    @Test
+    void shallowerResultGoesToAlwaysReplaceSlot() {
+        long deep = sameBucket(1);
+        table.store(deep, 8, TranspositionTable.EXACT, 10, MOVE);
+        table.store(sameBucket(2), 3, TranspositionTable.EXACT, 20, MOVE);
+        table.store(sameBucket(3), 2, TranspositionTable.EXACT, 30, MOVE);
+        assertEquals(8, TranspositionTable.depth(table.probe(deep)));
+        assertEquals(0, table.probe(sameBucket(2)));
+        assertEquals(30, TranspositionTable.score(table.probe(sameBucket(3))));
+
+        table.store(sameBucket(4), 8, TranspositionTable.EXACT, 40, MOVE);
+        assertEquals(0, table.probe(deep));
+        assertEquals(40, TranspositionTable.score(table.probe(sameBucket(4))));
+        assertEquals(30, TranspositionTable.score(table.probe(sameBucket(3))));
+    }
+
+    @Test
+    void entriesFromEarlierSearchAreReplaceable() {
+        long deep = sameBucket(1);
+        table.store(deep, 20, TranspositionTable.EXACT, 10, MOVE);
+        table.newSearch();
+        table.store(sameBucket(2), 1, TranspositionTable.EXACT, 20, MOVE);
+        table.store(sameBucket(3), 0, TranspositionTable.EXACT, 30, MOVE);
+        assertEquals(0, table.probe(deep));
+        assertEquals(20, TranspositionTable.score(table.probe(sameBucket(2))));
+        assertEquals(30, TranspositionTable.score(table.probe(sameBucket(3))));
+    }
+
+    @Test
+    void clearEmptiesTable() {
+        table.store(KEY, 7, TranspositionTable.EXACT, 5, MOVE);
+        table.clear();
+        assertEquals(0, table.probe(KEY));
+    }
+
+    @Test
+    void tornEntryReadsAsMiss() throws ReflectiveOperationException {
+        TranspositionTable other = new TranspositionTable(1);
+        table.store(KEY, 7, TranspositionTable.EXACT, 5, MOVE);
+        other.store(KEY, 2, TranspositionTable.UPPER, -5, Moves.NONE);
+        long[] data = longs(table, "data");
+        long[] otherData = longs(other, "data");
+        for (int i = 0; i < data.length; i++) {
+            if (data[i] != 0)
+                data[i] = otherData[i];
+        }
+        assertEquals(0, table.probe(KEY));
+    }
+
+    @Test
+    void mismatchedKeyReadsAsMiss() throws ReflectiveOperationException {
+        table.store(KEY, 7, TranspositionTable.EXACT, 5, MOVE);
+        long[] keys = longs(table, "keys");
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0)
+                keys[i] ^= 1L << 40;
+        }
+        assertEquals(0, table.probe(KEY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 9, 30 })
+    void mateScoresAreStoredRelativeToNode(int mateIn) {
+        int win = MinimaxBot.MATE - mateIn;
+        int loss = -MinimaxBot.MATE + mateIn;
+        // found at ply 3, the mate is mateIn - 3 plies from the node
+        assertEquals(MinimaxBot.MATE - (mateIn - 3), MinimaxBot.toTable(win, 3));
+        assertEquals(-MinimaxBot.MATE + (mateIn - 3), MinimaxBot.toTable(loss, 3));
+        // reached again at ply 5, it is two plies further from the root
+        assertEquals(win - 2, MinimaxBot.fromTable(MinimaxBot.toTable(win, 3), 5));
+        assertEquals(loss + 2, MinimaxBot.fromTable(MinimaxBot.toTable(loss, 3), 5));
+
+        table.store(KEY, 4, TranspositionTable.EXACT, MinimaxBot.toTable(loss, 3), MOVE);
+        assertEquals(loss, MinimaxBot.fromTable(TranspositionTable.score(table.probe(KEY)), 3));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, -1, 250, -900, MinimaxBot.MATE_BOUND - 1, -MinimaxBot.MATE_BOUND + 1 })
+    void ordinaryScoresAreStoredUnchanged(int score) {
+        assertEquals(score, MinimaxBot.toTable(score, 6));
+        assertEquals(score, MinimaxBot.fromTable(score, 6));
+    }
+
+    private static long[] longs(TranspositionTable table, String name) throws ReflectiveOperationException {
+        Field field = TranspositionTable.class.getDeclaredField(name);
+        field.setAccessible(true);
+        return (long[]) field.get(table);
+    }
+}
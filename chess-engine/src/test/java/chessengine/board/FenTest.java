@@ -0,0 +1,124 @@
+package chessengine.board;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import chessengine.piece.PieceColor;
+import chessengine.piece.PieceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class FenTest {
+
+    @Test
+    void startPositionRoundTrips() {
+        Board board = Fen.parse(Fen.START_POSITION);
+        assertEquals(Fen.START_POSITION, Fen.toFen(board));
+        Board standard = new Board();
+        standard.initializeStandardSetup();
+        assertEquals(standard.hash(), board.hash());
+    }
+
+    @Test
+    void startPositionFields() {
+        Board board = Fen.parse(Fen.START_POSITION);
+        assertEquals(PieceColor.WHITE, board.getPieceAt(7, 4).orElseThrow().getColor());
+        assertEquals(PieceType.KING, board.getPieceAt(7, 4).orElseThrow().getType());
+        assertEquals(PieceType.QUEEN, board.getPieceAt(0, 3).orElseThrow().getType());
+        assertTrue(board.isWhiteToMove());
+        assertEquals(-1, board.getEnPassantRow());
+        assertEquals(0, board.getHalfmoveClock());
+        assertEquals(1, board.getFullmoveNumber());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R w K - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R b Qk - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R b q - 0 1",
+            "r3k2r/8/8/8/8/8/8/R3K2R w - - 0 1",
+    })
+    void castlingRightsRoundTrip(String fen) {
+        assertEquals(fen, Fen.toFen(Fen.parse(fen)));
+    }
+
+    @Test
+    void castlingRightsAreParsed() {
+        Board board = Fen.parse("r3k2r/8/8/8/8/8/8/R3K2R w Kq - 0 1");
+        assertEquals(BitboardPosition.WHITE_KINGSIDE | BitboardPosition.BLACK_QUEENSIDE, board.getCastlingRights());
+    }
+
+    @Test
+    void enPassantSquareRoundTrips() {
+        String fen = "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3";
+        Board board = Fen.parse(fen);
+        assertEquals(2, board.getEnPassantRow());
+        assertEquals(5, board.getEnPassantCol());
+        assertEquals(fen, Fen.toFen(board));
+    }
+
+    @Test
+    void blackEnPassantSquareRoundTrips() {
+        String fen = "rnbqkbnr/pp1ppppp/8/8/1PpPP3/8/P1P2PPP/RNBQKBNR b KQkq d3 0 3";
+        assertEquals(fen, Fen.toFen(Fen.parse(fen)));
+    }
+
+    @Test
+    void enPassantSquareNoPawnCanTakeIsDropped() {
+        Board board = Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertEquals(-1, board.getEnPassantRow());
+        assertEquals(Fen.parse("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1").hash(), board.hash());
+    }
+
+    @Test
+    void moveCountersRoundTrip() {
+        String fen = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 b - - 37 112";
+        Board board = Fen.parse(fen);
+        assertEquals(37, board.getHalfmoveClock());
+        assertEquals(112, board.getFullmoveNumber());
+        assertEquals(fen, Fen.toFen(board));
+    }
+
+    @Test
+    void missingMoveCountersDefault() {
+        Board board = Fen.parse("8/8/8/8/8/8/8/K6k w - -");
+        assertEquals(0, board.getHalfmoveClock());
+        assertEquals(1, board.getFullmoveNumber());
+        assertEquals("8/8/8/8/8/8/8/K6k w - - 0 1", Fen.toFen(board));
+    }
+
+    @Test
+    void writesIntoSuppliedBuffer() {
+        StringBuilder sb = new StringBuilder("fen: ");
+        Fen.write(Fen.parse(Fen.START_POSITION), sb);
+        assertEquals("fen: " + Fen.START_POSITION, sb.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1 extra",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR/8 w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/ppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/ppppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/ppppxppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x KQkq - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkx - 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e4 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq i3 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq e33 0 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - -1 1",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 0",
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - x 1",
+    })
+    void rejectsMalformedFen(String fen) {
+        assertThrows(IllegalArgumentException.class, () -> Fen.parse(fen));
+    }
+}
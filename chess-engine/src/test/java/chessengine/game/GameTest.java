@@ -0,0 +1,304 @@
+package chessengine.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import chessengine.board.Fen;
+import chessengine.move.Move;
+import chessengine.move.MoveType;
+import chessengine.piece.PieceColor;
+import chessengine.piece.PieceType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * {@link Game#status()} and the draw rules behind it, driven from FEN positions
+ * and short move sequences in coordinate notation.
+ */
+class GameTest {
+
+    private static Game play(Game game, String... moves) {
+        for (String uci : moves) {
+            PieceType promotion = uci.length() > 4 ? promotionType(uci.charAt(4)) : null;
+            Move move = game.findLegalMove('8' - uci.charAt(1), uci.charAt(0) - 'a',
+                    '8' - uci.charAt(3), uci.charAt(2) - 'a', promotion);
+            assertNotNull(move, "illegal move " + uci);
+            game.applyValidatedMove(move);
+        }
+        return game;
+    }
+
+    private static PieceType promotionType(char c) {
+        return switch (c) {
+            case 'q' -> PieceType.QUEEN;
+            case 'r' -> PieceType.ROOK;
+            case 'b' -> PieceType.BISHOP;
+            default -> PieceType.KNIGHT;
+        };
+    }
+
+    @Test
+    void startPositionIsOngoing() {
+        assertEquals(GameStatus.ONGOING, Game.fromFen(Fen.START_POSITION).status());
+    }
+
+    @Test
+    void knightShuffleRepeatsThreeTimes() {
+        Game game = Game.fromFen(Fen.START_POSITION);
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(game.isRepetition());
+        assertFalse(game.isThreefoldRepetition());
+        assertEquals(GameStatus.ONGOING, game.status());
+
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(game.isThreefoldRepetition());
+        assertEquals(GameStatus.REPETITION, game.status());
+    }
+
+    @Test
+    void pawnMoveEndsRepetitionWindow() {
+        Game game = Game.fromFen(Fen.START_POSITION);
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8", "e2e3", "e7e6");
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(game.isRepetition());
+        assertFalse(game.isThreefoldRepetition());
+    }
+
+    @Test
+    void lostCastlingRightsMakeADifferentPosition() {
+        Game game = Game.fromFen("4k3/8/8/8/8/8/8/R3K3 w Q - 0 1");
+        play(game, "a1b1", "e8d8", "b1a1", "d8e8");
+        // same pieces, but White can no longer castle
+        assertFalse(game.isRepetition());
+        play(game, "a1b1", "e8d8", "b1a1", "d8e8");
+        assertTrue(game.isRepetition());
+        assertFalse(game.isThreefoldRepetition());
+        play(game, "a1b1", "e8d8", "b1a1", "d8e8");
+        assertEquals(GameStatus.REPETITION, game.status());
+    }
+
+    @Test
+    void positionAfterDoublePushRepeats() {
+        // no Black pawn can take on e3, so the position after e2e4 is the same one
+        // the king walks return to
+        Game game = Game.fromFen("4k3/8/8/8/8/8/4P3/4K3 w - - 0 1");
+        play(game, "e2e4", "e8e7", "e1e2", "e7e8", "e2e1");
+        assertTrue(game.isRepetition());
+        play(game, "e8e7", "e1e2", "e7e8", "e2e1");
+        assertEquals(GameStatus.REPETITION, game.status());
+    }
+
+    @Test
+    void capturableEnPassantSquareIsKept() {
+        Game game = play(Game.fromFen(Fen.START_POSITION), "e2e4", "a7a6", "e4e5", "d7d5");
+        assertEquals("rnbqkbnr/1pp1pppp/p7/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3",
+                Fen.toFen(game.getBoard()));
+        play(game, "e5d6");
+    }
+
+    @Test
+    void copySeesEarlierRepetitions() {
+        Game game = Game.fromFen(Fen.START_POSITION);
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1");
+        Game copy = game.copy();
+        play(copy, "f6g8");
+        assertEquals(GameStatus.REPETITION, copy.status());
+    }
+
+    @Test
+    void unmakeForgetsRepetition() {
+        Game game = Game.fromFen(Fen.START_POSITION);
+        play(game, "g1f3", "g8f6", "f3g1", "f6g8");
+        assertTrue(game.isRepetition());
+        game.unmakeMove();
+        assertFalse(game.isRepetition());
+    }
+
+    @Test
+    void hundredPliesWithoutCaptureOrPawnMoveIsFiftyMoveDraw() {
+        Game game = Game.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 80");
+        assertEquals(GameStatus.ONGOING, game.status());
+        play(game, "a1a2");
+        assertEquals(100, game.getHalfmoveClock());
+        assertTrue(game.isFiftyMoveRule());
+        assertEquals(GameStatus.FIFTY_MOVE, game.status());
+    }
+
+    @Test
+    void pawnMoveResetsFiftyMoveCount() {
+        Game game = Game.fromFen("4k3/8/8/8/8/8/4P3/R3K3 w - - 99 80");
+        play(game, "e2e3");
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(GameStatus.ONGOING, game.status());
+    }
+
+    @Test
+    void captureResetsFiftyMoveCount() {
+        Game game = Game.fromFen("4k3/8/8/8/8/8/r3P3/R3K3 w - - 99 80");
+        play(game, "a1a2");
+        assertEquals(0, game.getHalfmoveClock());
+        assertEquals(GameStatus.ONGOING, game.status());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "8/8/8/4k3/8/8/8/4K3 w - - 0 1",
+            "8/8/8/4k3/8/8/8/4KN2 w - - 0 1",
+            "8/8/8/4k3/8/8/8/4KB2 b - - 0 1",
+            "8/8/8/4k3/8/8/8/n3K3 w - - 0 1",
+            "2b5/8/8/4k3/8/8/8/4KB2 w - - 0 1",
+            "2b5/8/8/4k3/8/8/8/1B2KB2 w - - 0 1",
+    })
+    void mateIsImpossible(String fen) {
+        Game game = Game.fromFen(fen);
+        assertTrue(game.isInsufficientMaterial());
+        assertEquals(GameStatus.INSUFFICIENT_MATERIAL, game.status());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "8/8/8/4k3/8/8/4P3/4K3 w - - 0 1",
+            "8/8/8/4k3/8/8/8/R3K3 w - - 0 1",
+            "8/8/8/4k3/8/8/8/3QK3 w - - 0 1",
+            "8/8/8/4k3/8/8/8/4KNN1 w - - 0 1",
+            "8/8/8/4k3/8/8/8/1n2KN2 w - - 0 1",
+            "5b2/8/8/4k3/8/8/8/4KB2 w - - 0 1",
+            "8/8/8/4k3/8/8/8/4KBN1 w - - 0 1",
+    })
+    void mateIsStillPossible(String fen) {
+        Game game = Game.fromFen(fen);
+        assertFalse(game.isInsufficientMaterial());
+        assertEquals(GameStatus.ONGOING, game.status());
+    }
+
+    @Test
+    void captureLeavingBareMinorIsInsufficient() {
+        Game game = Game.fromFen("4k3/8/8/8/8/8/5r2/4K1N1 w - - 0 1");
+        assertEquals(GameStatus.ONGOING, game.status());
+        play(game, "e1f2");
+        assertEquals(GameStatus.INSUFFICIENT_MATERIAL, game.status());
+        game.unmakeMove();
+        assertEquals(GameStatus.ONGOING, game.status());
+    }
+
+    @Test
+    void foolsMateIsCheckmate() {
+        Game game = play(Game.fromFen(Fen.START_POSITION), "f2f3", "e7e5", "g2g4", "d8h4");
+        assertTrue(game.isCheckmate(PieceColor.WHITE));
+        assertEquals(GameStatus.CHECKMATE, game.status());
+        assertTrue(game.status().isGameOver());
+        assertFalse(game.status().isDraw());
+    }
+
+    @Test
+    void backRankMateIsCheckmate() {
+        Game game = Game.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 0 1");
+        play(game, "a1a8");
+        assertEquals(GameStatus.CHECKMATE, game.status());
+    }
+
+    @Test
+    void checkWithAnEscapeIsOngoing() {
+        Game game = Game.fromFen("6k1/5pp1/8/8/8/8/8/R5K1 w - - 0 1");
+        play(game, "a1a8");
+        assertTrue(game.isKingInCheck(PieceColor.BLACK));
+        assertEquals(GameStatus.ONGOING, game.status());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "7k/5Q2/6K1/8/8/8/8/8 b - - 0 1",
+            "k7/P7/1K6/8/8/8/8/8 b - - 0 1",
+            "8/8/8/8/8/5k2/5p2/5K2 w - - 0 1",
+    })
+    void noMoveOutOfCheckIsStalemate(String fen) {
+        Game game = Game.fromFen(fen);
+        assertTrue(game.isStalemate(game.getActiveColor()));
+        assertEquals(GameStatus.STALEMATE, game.status());
+        assertTrue(game.status().isDraw());
+    }
+
+    @Test
+    void checkmateTakesPrecedenceOverFiftyMoveRule() {
+        Game game = Game.fromFen("6k1/5ppp/8/8/8/8/8/R5K1 w - - 99 80");
+        play(game, "a1a8");
+        assertTrue(game.isFiftyMoveRule());
+        assertEquals(GameStatus.CHECKMATE, game.status());
+    }
+
+    @Test
+    void stalemateTakesPrecedenceOverFiftyMoveRule() {
+        Game game = Game.fromFen("7k/5Q2/6K1/8/8/8/8/8 b - - 120 90");
+        assertEquals(GameStatus.STALEMATE, game.status());
+    }
+
+    @Test
+    void findLegalMoveRecognisesCastling() {
+        Game game = Game.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1");
+        assertEquals(MoveType.CASTLING, game.findLegalMove(7, 4, 7, 6, null).getType());
+        assertEquals(MoveType.CASTLING, game.findLegalMove(7, 4, 7, 2, null).getType());
+        play(game, "e1g1");
+        assertEquals(PieceType.ROOK, game.getBoard().getPieceAt(7, 5).orElseThrow().getType());
+        assertEquals(MoveType.CASTLING, game.findLegalMove(0, 4, 0, 2, null).getType());
+    }
+
+    @Test
+    void findLegalMoveRejectsCastlingThroughAttackOrWithoutRights() {
+        // the rook on f2 covers f1; Black has lost its kingside right
+        Game game = Game.fromFen("r3k2r/8/8/8/8/8/5r2/R3K2R w KQq - 0 1");
+        assertNull(game.findLegalMove(7, 4, 7, 6, null));
+        assertNotNull(game.findLegalMove(7, 4, 7, 2, null));
+        play(game, "a1b1");
+        assertNull(game.findLegalMove(0, 4, 0, 6, null));
+        assertNotNull(game.findLegalMove(0, 4, 0, 2, null));
+    }
+
+    @Test
+    void findLegalMoveRecognisesEnPassant() {
+        Game game = Game.fromFen("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+        Move move = game.findLegalMove(3, 4, 2, 3, null);
+        assertEquals(MoveType.EN_PASSANT, move.getType());
+        game.applyValidatedMove(move);
+        assertTrue(game.getBoard().getPieceAt(3, 3).isEmpty());
+    }
+
+    @Test
+    void findLegalMoveRejectsEnPassantThatExposesTheKing() {
+        Game game = Game.fromFen("8/8/8/K2pP2r/8/8/8/7k w - d6 0 1");
+        assertNull(game.findLegalMove(3, 4, 2, 3, null));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "QUEEN", "ROOK", "BISHOP", "KNIGHT" })
+    void findLegalMovePromotesToTheRequestedPiece(String piece) {
+        PieceType type = PieceType.valueOf(piece);
+        Game game = Game.fromFen("1r5k/P7/8/8/8/8/8/K7 w - - 0 1");
+        Move push = game.findLegalMove(1, 0, 0, 0, type);
+        assertEquals(MoveType.PROMOTION, push.getType());
+        assertEquals(type, push.getPromotionPiece());
+        Move capture = game.findLegalMove(1, 0, 0, 1, type);
+        assertEquals(MoveType.PROMOTION, capture.getType());
+        assertEquals(type, capture.getPromotionPiece());
+        game.applyValidatedMove(capture);
+        assertEquals(type, game.getBoard().getPieceAt(0, 1).orElseThrow().getType());
+    }
+
+    @Test
+    void findLegalMoveNeedsAPieceForPromotion() {
+        Game game = Game.fromFen("1r5k/P7/8/8/8/8/8/K7 w - - 0 1");
+        assertNull(game.findLegalMove(1, 0, 0, 0, null));
+        assertNull(game.findLegalMove(1, 0, 0, 1, null));
+    }
+
+    @Test
+    void findLegalMoveIgnoresPromotionPieceOffTheLastRank() {
+        Game game = Game.fromFen(Fen.START_POSITION);
+        Move move = game.findLegalMove(6, 4, 4, 4, PieceType.QUEEN);
+        assertEquals(MoveType.NORMAL, move.getType());
+        assertNull(game.findLegalMove(6, 4, 3, 4, null));
+    }
+}
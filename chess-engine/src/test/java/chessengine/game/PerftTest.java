@@ -0,0 +1,199 @@
+package chessengine.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import chessengine.board.BitboardPosition;
+import chessengine.board.Fen;
+import chessengine.board.PieceSquareTables;
+import chessengine.board.Zobrist;
+import chessengine.move.MoveGenerator;
+import chessengine.move.MoveList;
+import chessengine.move.Moves;
+import chessengine.piece.PieceType;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Move generation and make/unmake checked against the published perft counts of
+ * the reference positions, at depths that run in well under a second each.
+ */
+class PerftTest {
+
+    // node counts at depths 1-3 for each entry of Perft.REFERENCE_POSITIONS, in order
+    private static final long[][] SHALLOW_NODES = {
+            { 20, 400, 8_902 },
+            { 48, 2_039, 97_862 },
+            { 14, 191, 2_812 },
+            { 6, 264, 9_467 },
+            { 44, 1_486, 62_379 },
+            { 46, 2_079, 89_890 },
+    };
+
+    static Stream<Arguments> shallowCounts() {
+        Stream.Builder<Arguments> cases = Stream.builder();
+        for (int i = 0; i < Perft.REFERENCE_POSITIONS.length; i++) {
+            Perft.Reference ref = Perft.REFERENCE_POSITIONS[i];
+            for (int depth = 1; depth <= SHALLOW_NODES[i].length; depth++)
+                cases.add(Arguments.of(ref.getName(), ref.getFen(), depth, SHALLOW_NODES[i][depth - 1]));
+        }
+        return cases.build();
+    }
+
+    @ParameterizedTest(name = "{0} depth {2}")
+    @MethodSource("shallowCounts")
+    void matchesReferenceCount(String name, String fen, int depth, long nodes) {
+        assertEquals(nodes, new Perft(Game.fromFen(fen)).perft(depth));
+    }
+
+    @Test
+    void position3AtDepth4() {
+        // the en-passant and discovered-check position is cheap enough to go deeper
+        assertEquals(43_238L, new Perft(Game.fromFen(Perft.REFERENCE_POSITIONS[2].getFen())).perft(4));
+    }
+
+    @Test
+    void leavesGameUnchanged() {
+        Game game = Game.fromFen(Perft.REFERENCE_POSITIONS[1].getFen());
+        String before = Fen.toFen(game.getBoard());
+        long key = game.getBoard().position().hash();
+        new Perft(game).perft(3);
+        assertEquals(before, Fen.toFen(game.getBoard()));
+        assertEquals(key, game.getBoard().position().hash());
+    }
+
+    @Test
+    void divideSumsToPerft() {
+        Game game = Game.fromFen(Perft.REFERENCE_POSITIONS[1].getFen());
+        Map<String, Long> divide = new Perft(game).divide(2);
+        assertEquals(48, divide.size());
+        assertEquals(2_039L, divide.values().stream().mapToLong(Long::longValue).sum());
+        assertTrue(divide.containsKey("e1g1"));
+        assertTrue(divide.containsKey("e1c1"));
+    }
+
+    @Test
+    void incrementalStateMatchesRecomputation() {
+        for (Perft.Reference ref : Perft.REFERENCE_POSITIONS)
+            walkConsistent(Game.fromFen(ref.getFen()), 3);
+    }
+
+    /**
+     * Walk the legal move tree checking that every incrementally kept field of
+     * the position equals a from-scratch recomputation, after make/unmake, across
+     * a null move and in a copy.
+     */
+    private static void walkConsistent(Game game, int depth) {
+        BitboardPosition position = game.getBoard().position();
+        assertConsistent(position);
+        assertConsistent(position.copy());
+        if (!position.isInCheck(position.sideToMove())) {
+            long key = position.hash();
+            game.makeNullMove();
+            assertConsistent(position);
+            game.unmakeNullMove();
+            assertEquals(key, position.hash());
+        }
+        if (depth == 0)
+            return;
+        MoveList moves = new MoveList();
+        Game.legalMoves(position, game.getActiveColor(), moves);
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(moves.get(i));
+            walkConsistent(game, depth - 1);
+            game.unmakeMove();
+        }
+    }
+
+    private static void assertConsistent(BitboardPosition position) {
+        BitboardPosition fresh = rebuild(position);
+        assertEquals(position.computeHash(), position.hash());
+        assertEquals(fresh.hash(), position.hash());
+        assertEquals(fresh.materialSignature(), position.materialSignature());
+        for (int piece = 0; piece < 12; piece++)
+            assertEquals(fresh.pieces(piece), position.pieces(piece));
+        for (int color = 0; color < 2; color++) {
+            assertEquals(fresh.occupancy(color), position.occupancy(color));
+            assertEquals(fresh.kingSquare(color), position.kingSquare(color));
+        }
+        int middlegame = 0;
+        int endgame = 0;
+        int phase = 0;
+        long pawnHash = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = position.pieceAt(sq);
+            if (piece == BitboardPosition.NO_PIECE)
+                continue;
+            middlegame += PieceSquareTables.middlegame(piece, sq);
+            endgame += PieceSquareTables.endgame(piece, sq);
+            phase += PieceSquareTables.phase(piece);
+            if (piece % 6 == PieceType.PAWN.ordinal())
+                pawnHash ^= Zobrist.pieceSquare(piece, sq);
+        }
+        assertEquals(middlegame, position.middlegameScore());
+        assertEquals(endgame, position.endgameScore());
+        assertEquals(phase, position.gamePhase());
+        assertEquals(pawnHash, position.pawnHash());
+        assertEquals(fresh.pawnHash(), position.pawnHash());
+    }
+
+    /**
+     * A new position built square by square from the mailbox of {@code position}.
+     */
+    private static BitboardPosition rebuild(BitboardPosition position) {
+        BitboardPosition fresh = new BitboardPosition();
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = position.pieceAt(sq);
+            if (piece != BitboardPosition.NO_PIECE)
+                fresh.put(sq, piece);
+        }
+        fresh.setCastlingRights(position.getCastlingRights());
+        fresh.setEnPassantSquare(position.getEnPassantSquare());
+        fresh.setWhiteToMove(position.isWhiteToMove());
+        return fresh;
+    }
+
+    @Test
+    void isLegalAcceptsExactlyTheGeneratedMoves() {
+        for (Perft.Reference ref : Perft.REFERENCE_POSITIONS)
+            walkLegality(Game.fromFen(ref.getFen()), 3);
+    }
+
+    /**
+     * At every node, every pseudo-legal move must be accepted by the single-move
+     * check exactly when the legal generator produces it, through both the packed
+     * and the {@link chessengine.move.Move} entry points.
+     */
+    private static void walkLegality(Game game, int depth) {
+        BitboardPosition position = game.getBoard().position();
+        boolean white = position.isWhiteToMove();
+        MoveGenerator generator = new MoveGenerator();
+        MoveList legal = new MoveList();
+        generator.generateLegalMoves(position, white, legal);
+        MoveList pseudo = new MoveList();
+        generator.generateAllMoves(position, white, pseudo);
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            assertTrue(pseudo.contains(move), () -> "not pseudo-legal " + Moves.toUci(move));
+        }
+        for (int i = 0; i < pseudo.size(); i++) {
+            int move = pseudo.get(i);
+            boolean expected = legal.contains(move);
+            assertEquals(expected, generator.isLegal(position, move),
+                    () -> Moves.toUci(move) + " in " + Fen.toFen(game.getBoard()));
+            if (depth > 1)
+                assertEquals(expected, game.isLegal(Moves.toMove(move)));
+        }
+        if (depth == 0)
+            return;
+        for (int i = 0; i < legal.size(); i++) {
+            game.makeMove(legal.get(i));
+            walkLegality(game, depth - 1);
+            game.unmakeMove();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package chessengine.move;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import chessengine.board.BitboardPosition;
+import chessengine.board.Fen;
+import chessengine.game.Game;
+import chessengine.game.Perft;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * The staged picker must hand out the same moves as the legal generator, each
+ * exactly once, whatever hash move and killers it is given.
+ */
+class MovePickerTest {
+
+    private final MoveGenerator generator = new MoveGenerator();
+    private final int[] history = new int[2 * 64 * 64];
+    private int nodesInCheck;
+
+    @Test
+    void returnsEveryLegalMoveOnceOverReferenceTrees() {
+        for (Perft.Reference ref : Perft.REFERENCE_POSITIONS)
+            walk(Game.fromFen(ref.getFen()), 2);
+        assertTrue(nodesInCheck > 0, "the trees should include evasions");
+    }
+
+    @Test
+    void returnsEveryEvasionOnce() {
+        // single check by a queen, double check, and check by a pawn with en passant
+        for (String fen : new String[] {
+                "4k3/8/8/8/8/8/4q3/R3K2R w KQ - 0 1",
+                "4k3/8/8/8/1b6/8/4r3/R3K1NR w KQ - 0 1",
+                "8/8/8/2k5/3Pp3/8/8/4K3 b - d3 0 1",
+        }) {
+            BitboardPosition pos = Fen.parse(fen).position();
+            assertTrue(pos.isInCheck(pos.sideToMove()), fen);
+            checkNode(pos);
+        }
+    }
+
+    @Test
+    void noisyModeReturnsOnlyCapturesAndPromotions() {
+        BitboardPosition pos = Fen.parse(Perft.REFERENCE_POSITIONS[1].getFen()).position();
+        MoveList noisy = new MoveList();
+        generator.generateCaptures(pos, pos.isWhiteToMove(), noisy);
+        MovePicker picker = new MovePicker(history);
+        picker.initNoisy(pos);
+        Set<Integer> seen = new HashSet<>();
+        for (int move = picker.next(); move != Moves.NONE; move = picker.next()) {
+            assertTrue(noisy.contains(move), Moves.toUci(move));
+            assertTrue(seen.add(move), "returned twice: " + Moves.toUci(move));
+        }
+        assertTrue(!seen.isEmpty());
+    }
+
+    private void walk(Game game, int depth) {
+        BitboardPosition pos = game.getBoard().position();
+        if (pos.isInCheck(pos.sideToMove()))
+            nodesInCheck++;
+        checkNode(pos);
+        if (depth == 0)
+            return;
+        MoveList legal = new MoveList();
+        generator.generateLegalMoves(pos, pos.isWhiteToMove(), legal);
+        for (int i = 0; i < legal.size(); i++) {
+            game.makeMove(legal.get(i));
+            walk(game, depth - 1);
+            game.unmakeMove();
+        }
+    }
+
+    /**
+     * Pick all moves with no hash move, and with each legal move in turn as the
+     * hash move, which must then come first.
+     */
+    private void checkNode(BitboardPosition pos) {
+        MoveList legal = new MoveList();
+        generator.generateLegalMoves(pos, pos.isWhiteToMove(), legal);
+        assertPicksAll(pos, legal, Moves.NONE, Moves.NONE, Moves.NONE);
+        for (int i = 0; i < legal.size(); i++)
+            assertPicksAll(pos, legal, legal.get(i), Moves.NONE, Moves.NONE);
+        checkKillers(pos, legal);
+    }
+
+    /**
+     * Killers that repeat the hash move, repeat each other or are captures must
+     * not come out a second time, and a legal quiet killer must come before the
+     * other quiet moves.
+     */
+    private void checkKillers(BitboardPosition pos, MoveList legal) {
+        int quiet = Moves.NONE;
+        int capture = Moves.NONE;
+        for (int i = 0; i < legal.size(); i++) {
+            int move = legal.get(i);
+            if (Moves.type(move) == Moves.NORMAL || Moves.type(move) == Moves.CASTLING) {
+                if (quiet == Moves.NONE)
+                    quiet = move;
+            } else if (capture == Moves.NONE) {
+                capture = move;
+            }
+        }
+        assertPicksAll(pos, legal, quiet, quiet, capture);
+        assertPicksAll(pos, legal, Moves.NONE, quiet, quiet);
+        assertPicksAll(pos, legal, capture, capture, quiet);
+        if (quiet != Moves.NONE)
+            assertKillerBeforeQuiets(pos, quiet);
+    }
+
+    private void assertKillerBeforeQuiets(BitboardPosition pos, int killer) {
+        MovePicker picker = new MovePicker(history);
+        picker.init(pos, Moves.NONE, killer, Moves.NONE);
+        for (int move = picker.next(); move != killer; move = picker.next()) {
+            int m = move;
+            assertTrue(move != Moves.NONE, "killer never returned");
+            assertTrue(Moves.type(move) != Moves.NORMAL && Moves.type(move) != Moves.CASTLING,
+                    () -> "quiet " + Moves.toUci(m) + " before killer " + Moves.toUci(killer));
+        }
+    }
+
+    private void assertPicksAll(BitboardPosition pos, MoveList legal, int hash, int killer1, int killer2) {
+        MovePicker picker = new MovePicker(history);
+        picker.init(pos, hash, killer1, killer2);
+        Set<Integer> seen = new HashSet<>();
+        int first = Moves.NONE;
+        for (int move = picker.next(); move != Moves.NONE; move = picker.next()) {
+            if (first == Moves.NONE)
+                first = move;
+            int m = move;
+            assertTrue(legal.contains(move), () -> "not legal: " + Moves.toUci(m));
+            assertTrue(seen.add(move), () -> "returned twice: " + Moves.toUci(m));
+        }
+        assertEquals(legal.size(), seen.size());
+        if (hash != Moves.NONE)
+            assertEquals(hash, first);
+    }
+}
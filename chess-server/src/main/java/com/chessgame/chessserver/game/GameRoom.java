@@ -2,9 +2,14 @@ package com.chessgame.chessserver.game;
 
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
+import chessengine.ai.MinimaxBot;
+import chessengine.ai.PieceSquareEvaluator;
+import chessengine.ai.TranspositionTable;
 import chessengine.game.Game;
+import chessengine.game.GameStatus;
 import chessengine.move.Move;
 import chessengine.piece.PieceColor;
+import chessengine.piece.PieceType;
 import java.io.IOException;
 
 /**
@@ -23,6 +28,9 @@ public class GameRoom {
 	private long blackTimeMs = 600000;
 	private long lastMoveTime = 0;
 	private boolean vsBot = false;
+	private TranspositionTable botTable;
+	private PieceSquareEvaluator botEvaluator;
+	private MinimaxBot bot;
 
 	public GameRoom(String roomId) {
 		this.roomId = roomId;
@@ -86,7 +94,35 @@ public class GameRoom {
 		return engine;
 	}
 
-	public synchronized void applyEngineMove(Move move) {
+	/**
+	 * Find the legal move between two squares for {@code mover} and play it, in one
+	 * step under the room lock so no other move can land between the lookup and
+	 * the apply. Returns the move played, or null if it is not {@code mover}'s turn
+	 * or the move is illegal.
+	 */
+	public synchronized Move tryApply(PieceColor mover, int fromRow, int fromCol, int toRow, int toCol,
+			PieceType promotion) {
+		if (engine.getActiveColor() != mover)
+			return null;
+		Move move = engine.findLegalMove(fromRow, fromCol, toRow, toCol, promotion);
+		if (move != null)
+			play(move);
+		return move;
+	}
+
+	/**
+	 * Play a move computed elsewhere, such as a bot's search result, if it is still
+	 * legal in the current position, and charge the mover's clock. Returns false
+	 * and leaves the game unchanged otherwise.
+	 */
+	public synchronized boolean applyEngineMove(Move move) {
+		if (!engine.isLegal(move))
+			return false;
+		play(move);
+		return true;
+	}
+
+	private void play(Move move) {
 		long now = System.currentTimeMillis();
 		if (lastMoveTime > 0) {
 			long elapsed = now - lastMoveTime;
@@ -97,10 +133,26 @@ public class GameRoom {
 			}
 		}
 		lastMoveTime = now;
-		engine.applyMove(move);
+		engine.applyValidatedMove(move);
 		moveCount++;
 	}
 
+	/**
+	 * Status of the game for the side to move, read under the room lock so a move
+	 * being played on another thread is never seen half applied.
+	 */
+	public synchronized GameStatus status() {
+		return engine.status();
+	}
+
+	/**
+	 * Copy of the game taken under the room lock, for a bot to search while
+	 * players keep moving on the live game.
+	 */
+	public synchronized Game snapshot() {
+		return engine.copy();
+	}
+
 	public int getMoveCount() {
 		return moveCount;
 	}
@@ -143,4 +195,38 @@ public class GameRoom {
 	public void setVsBot(boolean vsBot) {
 		this.vsBot = vsBot;
 	}
+
+	/**
+	 * Search table shared by all of the bot's moves in this room, created on first
+	 * use so rooms without a bot don't pay for it.
+	 */
+	public synchronized TranspositionTable getBotTable() {
+		if (botTable == null) {
+			botTable = new TranspositionTable();
+		}
+		return botTable;
+	}
+
+	/**
+	 * Evaluation used by this room's bot. It owns the pawn hash table, so pawn
+	 * structures scored for one move are still cached for the next.
+	 */
+	public synchronized PieceSquareEvaluator getBotEvaluator() {
+		if (botEvaluator == null) {
+			botEvaluator = new PieceSquareEvaluator();
+		}
+		return botEvaluator;
+	}
+
+	/**
+	 * The bot playing {@code color} in this room, kept between its moves together
+	 * with its helper searchers, move-ordering history, {@link #getBotTable()} and
+	 * {@link #getBotEvaluator()}. A room runs one bot search at a time.
+	 */
+	public synchronized MinimaxBot getBot(PieceColor color) {
+		if (bot == null || bot.getColor() != color) {
+			bot = new MinimaxBot(color, MinimaxBot.MAX_DEPTH, getBotTable(), getBotEvaluator());
+		}
+		return bot;
+	}
 }
@@ -12,10 +12,10 @@ import com.chessgame.chessserver.game.GameSession;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import chessengine.board.Board;
-import chessengine.board.Square;
+import chessengine.board.Fen;
+import chessengine.game.Game;
+import chessengine.game.GameStatus;
 import chessengine.move.Move;
-import chessengine.move.MoveType;
-import chessengine.piece.Piece;
 import chessengine.piece.PieceColor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -26,6 +26,7 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * WebSocket handler that parses incoming JSON messages and handles MOVE
@@ -38,9 +39,20 @@ import java.io.IOException;
 public class ChessGameWebSocketHandler extends TextWebSocketHandler {
 
 	private static final Logger log = LoggerFactory.getLogger(ChessGameWebSocketHandler.class);
+	// upper bound on a bot's planned think time per move, whatever its clock says
+	private static final long BOT_MAX_THINK_MS = 3000;
+	// the bot plans to spend 1/BOT_MOVES_TO_GO of its remaining clock on a move
+	private static final long BOT_MOVES_TO_GO = 40;
+	// most search threads one bot move may use
+	private static final int BOT_MAX_THREADS = 8;
+
+	// reused per thread so broadcasting a state only allocates the final FEN string
+	private static final ThreadLocal<StringBuilder> FEN_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(96));
 	private final ObjectMapper mapper = new ObjectMapper();
 	private final GameManager gameManager;
 	private final GameResultService gameResultService;
+	// bot searches running right now, to share the cores between them
+	private final AtomicInteger activeBotSearches = new AtomicInteger();
 
 	public ChessGameWebSocketHandler(GameManager gameManager, GameResultService gameResultService) {
 		this.gameManager = gameManager;
@@ -132,42 +144,23 @@ public class ChessGameWebSocketHandler extends TextWebSocketHandler {
 			return;
 		}
 
-		java.util.List<Move> legal = gr.getEngine().legalMovesForColor(colorToMove);
-		Move matched = null;
-
-		for (Move m : legal) {
-			if (m.getFromRow() == from[0] && m.getFromCol() == from[1] &&
-					m.getToRow() == to[0] && m.getToCol() == to[1]) {
-
-				if (m.getType() == MoveType.PROMOTION) {
-					if (mm.getPromotionPiece() != null) {
-						String promoCode = mm.getPromotionPiece().toUpperCase();
-						chessengine.piece.PieceType pt = switch (promoCode) {
-							case "QUEEN", "Q" -> chessengine.piece.PieceType.QUEEN;
-							case "ROOK", "R" -> chessengine.piece.PieceType.ROOK;
-							case "BISHOP", "B" -> chessengine.piece.PieceType.BISHOP;
-							case "KNIGHT", "N" -> chessengine.piece.PieceType.KNIGHT;
-							default -> null;
-						};
-						if (pt != null && pt.equals(m.getPromotionPiece())) {
-							matched = m;
-							break;
-						}
-					}
-				} else {
-					matched = m;
-					break;
-				}
-			}
-		}
-
-		if (matched == null) {
-			sendError(session, "illegal_move");
-			return;
+		chessengine.piece.PieceType promotion = null;
+		if (mm.getPromotionPiece() != null) {
+			promotion = switch (mm.getPromotionPiece().toUpperCase()) {
+				case "QUEEN", "Q" -> chessengine.piece.PieceType.QUEEN;
+				case "ROOK", "R" -> chessengine.piece.PieceType.ROOK;
+				case "BISHOP", "B" -> chessengine.piece.PieceType.BISHOP;
+				case "KNIGHT", "N" -> chessengine.piece.PieceType.KNIGHT;
+				default -> null;
+			};
 		}
-
 		try {
-			gr.applyEngineMove(matched);
+			// looked up and played under the room lock, so the position can't change in between
+			Move matched = gr.tryApply(colorToMove, from[0], from[1], to[0], to[1], promotion);
+			if (matched == null) {
+				sendError(session, "illegal_move");
+				return;
+			}
 			broadcastState(gr);
 
 			// Check game over
@@ -185,9 +178,11 @@ public class ChessGameWebSocketHandler extends TextWebSocketHandler {
 	}
 
 	private boolean checkGameOver(GameRoom gr) throws Exception {
+		GameStatus status = gr.status();
+		// no move can follow a mate, so the side to move read now is the mated one
 		PieceColor nextColor = gr.getActiveColor();
 		GameSession gs = gr.getGameSession();
-		if (gr.getEngine().isCheckmate(nextColor)) {
+		if (status == GameStatus.CHECKMATE) {
 			GameResult outcome = (nextColor == PieceColor.WHITE) ? GameResult.BLACK_WIN : GameResult.WHITE_WIN;
 			if (gs != null) {
 				gs.setResult(outcome);
@@ -208,7 +203,8 @@ public class ChessGameWebSocketHandler extends TextWebSocketHandler {
 			String gm = mapper.writeValueAsString(java.util.Map.of("type", "game_over", "result", outcome.name()));
 			gr.sendToBoth(gm);
 			return true;
-		} else if (gr.getEngine().isStalemate(nextColor)) {
+		}
+		if (status.isDraw()) {
 			if (gs != null) {
 				gs.setResult(GameResult.DRAW);
 				gs.setEndTime(LocalDateTime.now());
@@ -224,7 +220,8 @@ public class ChessGameWebSocketHandler extends TextWebSocketHandler {
 				gr.sendToBoth(msg);
 			} catch (Exception ignored) {
 			}
-			String gm = mapper.writeValueAsString(java.util.Map.of("type", "game_over", "result", "DRAW"));
+			String gm = mapper.writeValueAsString(
+					java.util.Map.of("type", "game_over", "result", "DRAW", "reason", status.name()));
 			gr.sendToBoth(gm);
 			return true;
 		}
@@ -235,21 +232,43 @@ public class ChessGameWebSocketHandler extends TextWebSocketHandler {
 		// Run in separate thread to not block websocket
 		new Thread(() -> {
 			try {
-				Thread.sleep(800); // simulated thinking time
-
 				// Check if game is still active before bot moves (user might have resigned)
 				var gs = gr.getGameSession();
 				if (gs != null && gs.isGameOver())
 					return;
 
-				chessengine.ai.MinimaxBot bot = new chessengine.ai.MinimaxBot(gr.getActiveColor(), 2);
-				Move m = bot.findBestMove(gr.getEngine());
+				// Search a copy taken under the room lock, never the live game
+				Game position = gr.snapshot();
+				PieceColor color = position.getActiveColor();
+
+				// Think for a share of the bot's clock: the soft limit ends iterative
+				// deepening between depths, the hard limit cuts off a running depth
+				long remaining = color == PieceColor.WHITE ? gr.getWhiteTimeMs() : gr.getBlackTimeMs();
+				long soft = Math.max(1, Math.min(remaining / BOT_MOVES_TO_GO, BOT_MAX_THINK_MS));
+				long hard = Math.max(soft, Math.min(soft * 3, remaining / 10));
+				chessengine.ai.MinimaxBot bot = gr.getBot(color);
+				Move m;
+				int running = activeBotSearches.incrementAndGet();
+				try {
+					// idle cores go to the bots thinking now, split evenly between them
+					int threads = Math.max(1,
+							Math.min(BOT_MAX_THREADS, Runtime.getRuntime().availableProcessors() / running));
+					m = bot.findBestMove(position, soft, hard, threads);
+				} finally {
+					activeBotSearches.decrementAndGet();
+				}
+				if (log.isDebugEnabled()) {
+					log.debug("Bot searched depth {} in room {}, {} nodes, pawn table hit rate {}",
+							bot.getCompletedDepth(), gr.getRoomId(), bot.getNodeCount(),
+							String.format("%.3f", gr.getBotEvaluator().getPawnTable().getHitRate()));
+				}
 				if (m != null) {
 					// Check again right before applying
 					if (gs != null && gs.isGameOver())
 						return;
 
-					gr.applyEngineMove(m);
+					if (!gr.applyEngineMove(m))
+						return;
 					broadcastState(gr);
 					checkGameOver(gr);
 				}
@@ -448,53 +467,14 @@ public class ChessGameWebSocketHandler extends TextWebSocketHandler {
 	}
 
 	private String buildFen(GameRoom gr) {
-		var board = gr.getBoard();
-		StringBuilder sb = new StringBuilder();
-		for (int r = 0; r < Board.SIZE; r++) {
-			int empty = 0;
-			for (int c = 0; c < Board.SIZE; c++) {
-				Square sq = board.getSquare(r, c);
-				Piece p = sq.getPiece();
-				if (p == null) {
-					empty++;
-				} else {
-					if (empty > 0) {
-						sb.append(empty);
-						empty = 0;
-					}
-					String code = pieceCode(p);
-					if (p.getColor() == PieceColor.WHITE) {
-						sb.append(code.toUpperCase());
-					} else {
-						sb.append(code.toLowerCase());
-					}
-				}
-			}
-			if (empty > 0)
-				sb.append(empty);
-			if (r < Board.SIZE - 1)
-				sb.append('/');
+		StringBuilder sb = FEN_BUFFER.get();
+		sb.setLength(0);
+		synchronized (gr) {
+			Fen.write(gr.getBoard(), sb);
 		}
-		// active color
-		PieceColor active = gr.getActiveColor();
-		sb.append(' ').append(active == PieceColor.WHITE ? 'w' : 'b');
-		// minimal FEN fields for now
-		sb.append(" - - 0 1");
 		return sb.toString();
 	}
 
-	private String pieceCode(Piece p) {
-		return switch (p.getClass().getSimpleName()) {
-			case "King" -> "k";
-			case "Queen" -> "q";
-			case "Rook" -> "r";
-			case "Bishop" -> "b";
-			case "Knight" -> "n";
-			case "Pawn" -> "p";
-			default -> "x";
-		};
-	}
-
 	private void handleCreateMessage(WebSocketSession session) {
 		try {
 			Object userAttr = session.getAttributes().get("user");